@@ -1,10 +1,11 @@
 package com.example.lets_play.config;
 
-import com.example.lets_play.model.User;
 import com.example.lets_play.repository.UserRepository;
+import com.example.lets_play.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 /**
@@ -13,24 +14,21 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
+
     @Autowired
     private UserRepository userRepository;
     
+    // Goes through the service so the per-role counters stay in step
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private UserService userService;
 
     @Override
     public void run(String... args) throws Exception {
         // Create default admin if it doesn't exist
         if (userRepository.findByEmail("admin@letsplay.com").isEmpty()) {
-            User admin = new User();
-            admin.setName("System Admin");
-            admin.setEmail("admin@letsplay.com");
-            admin.setPassword(passwordEncoder.encode("Admin123*"));
-            admin.setRole("ADMIN");
-            
-            userRepository.save(admin);
-            System.out.println("Default admin created: admin@letsplay.com / Admin123*");
+            userService.createUser("System Admin", "admin@letsplay.com", "Admin123*", "ADMIN");
+            log.info("Default admin created: admin@letsplay.com");
         }
     }
 }
\ No newline at end of file
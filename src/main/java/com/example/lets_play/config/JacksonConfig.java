@@ -0,0 +1,24 @@
+package com.example.lets_play.config;
+
+import com.example.lets_play.dto.ProductFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for JSON serialization settings
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serialize every product field unless a request narrows it with ?fields=
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer productFieldsFilter() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(ProductFields.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.lets_play.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-category log budget: at most {@code perSecond} events per one-second window, the rest are
+ * only counted. Lock-free and allocation-free, so it can sit in front of log calls on the request
+ * path; keep one instance per category (typically a static field next to the logger).
+ */
+public class LogRateLimiter {
+
+    private final int perSecond;
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicInteger used = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public LogRateLimiter(int perSecond) {
+        this.perSecond = perSecond;
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(System.currentTimeMillis());
+    }
+
+    boolean tryAcquire(long nowMillis) {
+        long second = nowMillis / 1000;
+        long current = window.get();
+        if (second != current && window.compareAndSet(current, second)) {
+            used.set(0);
+        }
+        if (used.incrementAndGet() <= perSecond) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * Events dropped since the last call, to report alongside the next one that gets through
+     */
+    public long drainSuppressed() {
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.lets_play.config;
+
+import com.example.lets_play.controller.ProductController;
+import com.example.lets_play.dto.ProductFields;
+import com.example.lets_play.model.Product;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds a strong ETag to single-product GET responses and answers a matching
+ * If-None-Match with 304 before the body is serialized.
+ * Runs after @PostAuthorize and after the ?fields= advice, hence the lowest precedence.
+ */
+@ControllerAdvice(assignableTypes = ProductController.class)
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ProductETagResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return Product.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+
+        Object value = body instanceof MappingJacksonValue container ? container.getValue() : body;
+        if (!(value instanceof Product product)
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+
+        ServletWebRequest webRequest = new ServletWebRequest(
+                servletRequest.getServletRequest(), servletResponse.getServletResponse());
+        String etag = productETag(product, ProductFields.parse(webRequest.getParameter("fields")));
+        return webRequest.checkNotModified(etag) ? null : body;
+    }
+
+    // Different field sets are different representations, so they get different tags
+    private static String productETag(Product product, ProductFields fields) {
+        long version = product.getVersion() == null ? 0 : product.getVersion();
+        String tag = product.getId() + "-" + version;
+        if (fields != null) {
+            tag += "-" + Integer.toHexString(fields.getJsonProperties().hashCode());
+        }
+        return "\"" + tag + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.lets_play.config;
+
+import com.example.lets_play.controller.ProductController;
+import com.example.lets_play.dto.ProductFields;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Trims serialized products to the fields requested with ?fields=.
+ * Runs after @PostAuthorize, so authorization still sees the fields it needs.
+ */
+@ControllerAdvice(assignableTypes = ProductController.class)
+@Order(0)
+public class ProductFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+            MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+
+        ProductFields fields = ProductFields.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(ProductFields.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields.getJsonProperties())));
+        }
+    }
+}
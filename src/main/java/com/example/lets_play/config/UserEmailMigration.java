@@ -0,0 +1,76 @@
+package com.example.lets_play.config;
+
+import com.example.lets_play.model.User;
+import com.example.lets_play.repository.CounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Brings emails stored before normalization to their canonical form, then creates the unique
+ * email index. Runs once per database (tracked in the counters collection) before the web server
+ * accepts requests, so existing mixed-case accounts stay reachable by login.
+ * An account whose normalized email already belongs to another account is left unchanged
+ * (the older account keeps the address) and logged for a manual merge.
+ */
+@Component
+public class UserEmailMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(UserEmailMigration.class);
+    private static final String DONE_MARKER = "migrations.users.email-normalized";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @PostConstruct
+    public void migrate() {
+        if (!counterRepository.existsById(DONE_MARKER)) {
+            normalizeStoredEmails();
+            counterRepository.createIfMissing(DONE_MARKER, 1);
+        }
+        // Created here rather than with @Indexed, which would fail on case-only duplicates before this runs
+        mongoTemplate.indexOps(User.class).createIndex(
+                new Index().on("email", Sort.Direction.ASC).unique().named("email"));
+    }
+
+    private void normalizeStoredEmails() {
+        // Raw documents, so the stored value is read as-is; oldest first keeps the address on the oldest account
+        Query pending = Query.query(Criteria.where("email").regex("[A-Z]|^\\s|\\s$"))
+                .with(Sort.by(Sort.Direction.ASC, "_id"));
+        pending.fields().include("email");
+
+        int normalized = 0;
+        List<Object> conflicts = new ArrayList<>();
+        for (Document user : mongoTemplate.find(pending, Document.class, "users")) {
+            String email = User.normalizeEmail(user.getString("email"));
+            if (mongoTemplate.exists(Query.query(Criteria.where("email").is(email)), "users")) {
+                conflicts.add(user.get("_id"));
+                continue;
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(user.get("_id"))),
+                    Update.update("email", email), "users");
+            normalized++;
+        }
+
+        log.info("Normalized {} stored user emails", normalized);
+        if (!conflicts.isEmpty()) {
+            log.warn("Users {} share an email with an older account up to case and were left unchanged; merge them manually",
+                    conflicts);
+        }
+    }
+}
@@ -5,11 +5,16 @@ import com.example.lets_play.service.ValidationService;
 import com.example.lets_play.service.TokenBlacklistService;
 import com.example.lets_play.dto.LoginUserRequest;
 import com.example.lets_play.dto.RegisterUserRequest;
+import com.example.lets_play.dto.RevocationStats;
+import com.example.lets_play.security.AuthenticatedUser;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
@@ -17,6 +22,8 @@ import jakarta.validation.Valid;
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     @Autowired
     private UserService userService;
     
@@ -62,16 +69,15 @@ public class AuthController {
 
     @PostMapping("/logout")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         try {
-            // Get user info for logging purposes
-            String email = userService.getUserFromToken(authHeader).getEmail();
-            
-            // Blacklist the token so it cannot be used again
-            tokenBlacklistService.blacklistToken(authHeader);
+            // Revoke the token until it expires so it cannot be used again
+            tokenBlacklistService.revoke(principal.getClaims());
             
-            // Log the logout event
-            System.out.println("User logged out and token blacklisted: " + email);
+            log.atInfo().addKeyValue("event", "logout")
+                    .addKeyValue("user", principal.getEmail())
+                    .log("User logged out");
             
             return ResponseEntity.ok("Logged out successfully. Token has been invalidated.");
             
@@ -84,20 +90,25 @@ public class AuthController {
 
     @PostMapping("/validate-token")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<String> validateToken(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<String> validateToken(@AuthenticationPrincipal AuthenticatedUser principal) {
         try {
             // Check if token is blacklisted
-            if (tokenBlacklistService.isTokenBlacklisted(authHeader)) {
+            if (tokenBlacklistService.isRevoked(principal.getClaims())) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Token has been invalidated (logged out)");
             }
             
-            String email = userService.getUserFromToken(authHeader).getEmail();
-            return ResponseEntity.ok("Token is valid for user: " + email);
+            return ResponseEntity.ok("Token is valid for user: " + principal.getEmail());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid token");
         }
     }
 
+    @GetMapping("/revocation-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public RevocationStats getRevocationStats() {
+        return tokenBlacklistService.stats();
+    }
+
     @GetMapping("/blacklist-status")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> getBlacklistStatus() {
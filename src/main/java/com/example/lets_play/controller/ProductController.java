@@ -4,14 +4,29 @@ import com.example.lets_play.model.Product;
 import com.example.lets_play.service.ProductService;
 import com.example.lets_play.service.UserService;
 import com.example.lets_play.service.ValidationService;
-import com.example.lets_play.model.User;
+import com.example.lets_play.dto.BulkProductUpdateRequest;
+import com.example.lets_play.dto.BulkResponse;
+import com.example.lets_play.dto.ProductBatchItem;
+import com.example.lets_play.dto.CacheStatsResponse;
+import com.example.lets_play.dto.ProductFields;
+import com.example.lets_play.dto.ProductFilter;
+import com.example.lets_play.dto.ProductPage;
+import com.example.lets_play.dto.ProductPatchRequest;
 import com.example.lets_play.dto.ProductRequest;
+import com.example.lets_play.dto.ProductSort;
+import com.example.lets_play.dto.ProductSuggestion;
+import com.example.lets_play.exception.ValidationException;
+import com.example.lets_play.security.AuthenticatedUser;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
 import java.util.List;
@@ -41,27 +56,134 @@ public class ProductController {
     // }
 
     @GetMapping
-    public List<Product> getAll() {
-        return productService.getAllProducts();
+    public ProductPage getAll(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        // Unchanged catalog: answer 304 without running the query at all
+        if (webRequest.checkNotModified(catalogETag())) {
+            return null;
+        }
+        ProductFilter filter = productFilter(minPrice, maxPrice, owner, namePrefix, sort);
+        return productService.getProducts(filter, cursor, limit, ProductFields.parse(fields));
     }
     
     @GetMapping("/search")
-    public List<Product> searchProducts(@RequestParam(required = false) String q) {
+    public ProductPage searchProducts(@RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String owner,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String sort,
+            WebRequest webRequest) {
+        boolean indexed = fuzzy || productService.isIndexSearch();
+        if (webRequest.checkNotModified(indexed ? indexETag() : catalogETag())) {
+            return null;
+        }
+
         // Validate and sanitize search query
         String sanitizedQuery = validationService.validateAndSanitizeSearchQuery(q);
+        ProductFields productFields = ProductFields.parse(fields);
+        ProductFilter filter = productFilter(minPrice, maxPrice, owner, namePrefix, sort);
         
         if (sanitizedQuery.isEmpty()) {
-            return productService.getAllProducts();
+            return productService.getProducts(filter, cursor, limit, productFields);
+        }
+
+        if (fuzzy) {
+            return productService.fuzzySearchProducts(sanitizedQuery, filter, limit, productFields);
         }
         
-        return productService.searchProducts(sanitizedQuery);
+        return productService.searchProducts(sanitizedQuery, filter, cursor, limit, productFields);
+    }
+
+    private ProductFilter productFilter(Double minPrice, Double maxPrice, String owner, String namePrefix,
+            String sort) {
+        validationService.validatePriceRange(minPrice, maxPrice);
+        if (owner != null) {
+            validationService.validateObjectId(owner, "Owner");
+        }
+        String prefix = validationService.validateAndSanitizeSearchQuery(namePrefix);
+        return new ProductFilter(minPrice, maxPrice, owner == null ? null : owner.trim(), prefix,
+                ProductSort.parse(sort));
+    }
+
+    // ETags are scoped to the request URL, so the catalog version alone identifies a page
+    private String catalogETag() {
+        return "\"catalog-" + productService.getCatalogVersion() + "\"";
+    }
+
+    // Index-served results change when this instance rebuilds its indexes, even if the catalog version did not
+    private String indexETag() {
+        return "\"catalog-" + productService.getCatalogVersion() + "-index-" + productService.getIndexGeneration() + "\"";
+    }
+
+    // If-Match carries a product ETag ("<id>-<version>[-<fields>]"); "*" or no header means unconditional
+    private Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String[] parts = ifMatch.trim().replace("W/", "").replace("\"", "").split("-");
+        try {
+            return Long.parseLong(parts[1]);
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new ValidationException("Invalid If-Match header");
+        }
+    }
+
+    // Autocomplete for search-as-you-type, served from memory and returning id + title only
+    @GetMapping("/suggest")
+    public List<ProductSuggestion> suggestProducts(@RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit) {
+        String sanitizedPrefix = validationService.validateAndSanitizeSearchQuery(prefix);
+        return productService.suggestProducts(sanitizedPrefix, limit);
+    }
+
+    // Full catalog export for downstream jobs, one JSON document per line
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts() {
+        StreamingResponseBody body = productService::exportProducts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Multi-get for carts and wishlists: one request, one $in query, results in request order.
+    // Public like the detail endpoint; each product is checked against the same visibility rule.
+    @PostMapping("/batch")
+    public List<ProductBatchItem> getProductsBatch(@RequestBody List<String> ids,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return productService.getProductsByIds(ids, user);
+    }
+
+    @GetMapping("/batch")
+    public List<ProductBatchItem> getProductsBatchByQuery(@RequestParam List<String> ids,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return productService.getProductsByIds(ids, user);
+    }
+
+    @GetMapping("/cache-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CacheStatsResponse getCacheStats() {
+        return productService.getCacheStats();
     }
 
     // Another @PostAuthorize example with complex business logic
     // This could be used for products that have different visibility levels
     @GetMapping("/{id}")
-    @PostAuthorize("hasRole('ADMIN') or (returnObject.userId == authentication.name) or returnObject.price < 100")
-    public Product getProductDetails(@PathVariable String id) {
+    @PostAuthorize("hasRole('ADMIN') or @productService.isOwnedBy(returnObject, principal) or returnObject.price < 100")
+    public Product getProductDetails(@PathVariable String id,
+            @RequestParam(required = false) String fields) {
         validationService.validateObjectId(id, "Product");
         
         // Complex authorization logic:
@@ -69,34 +191,33 @@ public class ProductController {
         // - Admin can see all product details
         // - Product owner can see their product details
         // - Regular users can only see details of products under $100
-        return productService.getProductById(id);
+        return productService.getProductById(id, ProductFields.parse(fields));
     }
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<Product> createProduct(
             @Valid @RequestBody ProductRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
         // Additional custom validation
         validationService.validateProductRequest(request);
         
-        User user = userService.getUserFromToken(authHeader);
         Product product = productService.createProduct(
                 request.getName(),
                 request.getDescription(),
                 request.getPrice(),
-                user.getId()
+                userService.getExistingUserId(user)
         );
 
         return ResponseEntity.ok(product);
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @productService.isProductOwner(#id, authentication.name)")
+    @PreAuthorize("hasRole('ADMIN') or @productService.isProductOwner(#id, principal)")
     public ResponseEntity<Product> update(@PathVariable String id,
             @Valid @RequestBody ProductRequest request,
-            @RequestHeader("Authorization") String authHeader) {
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
 
         // Validate ObjectId format
         validationService.validateObjectId(id, "Product");
@@ -104,25 +225,61 @@ public class ProductController {
         // Additional custom validation
         validationService.validateProductRequest(request);
 
-        User user = userService.getUserFromToken(authHeader);
         Product updatedProduct = productService.updateProduct(
                 id,
                 request.getName(),
                 request.getDescription(),
                 request.getPrice(),
-                user.getId()
+                expectedVersion(ifMatch)
         );
 
         return ResponseEntity.ok(updatedProduct);
     }
 
+    // Partial update: only the fields sent are validated and written
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN') or @productService.isProductOwner(#id, principal)")
+    public ResponseEntity<Product> patch(@PathVariable String id,
+            @Valid @RequestBody ProductPatchRequest request,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+
+        validationService.validateObjectId(id, "Product");
+        validationService.validateProductPatchRequest(request);
+
+        return ResponseEntity.ok(productService.patchProduct(id, request, expectedVersion(ifMatch)));
+    }
+
+    // Bulk endpoints: items are validated individually and one bad row does not fail the batch
+
+    @PostMapping("/bulk")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BulkResponse> createProducts(@RequestBody List<ProductRequest> requests,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(productService.createProducts(requests, userService.getExistingUserId(user)));
+    }
+
+    @PutMapping("/bulk")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BulkResponse> updateProducts(@RequestBody List<BulkProductUpdateRequest> requests,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(productService.updateProducts(requests, userService.getUserId(user), user.isAdmin()));
+    }
+
+    @DeleteMapping("/bulk")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BulkResponse> deleteProducts(@RequestBody List<String> ids,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(productService.deleteProducts(ids, userService.getUserId(user), user.isAdmin()));
+    }
+
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN') or @productService.isProductOwner(#id, authentication.name)")
-    public ResponseEntity<String> delete(@PathVariable String id) {
+    @PreAuthorize("hasRole('ADMIN') or @productService.isProductOwner(#id, principal)")
+    public ResponseEntity<String> delete(@PathVariable String id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         // Validate ObjectId format
         validationService.validateObjectId(id, "Product");
         
-        productService.deleteProduct(id);
+        productService.deleteProduct(id, expectedVersion(ifMatch));
         
         return ResponseEntity.ok("Product deleted successfully");
     }
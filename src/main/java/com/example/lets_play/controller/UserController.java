@@ -1,29 +1,52 @@
 package com.example.lets_play.controller;
 
+import com.example.lets_play.service.ProductService;
 import com.example.lets_play.service.UserService;
+import com.example.lets_play.service.ValidationService;
 import com.example.lets_play.model.User;
+import com.example.lets_play.dto.PasswordHashingStats;
+import com.example.lets_play.dto.ProductFields;
+import com.example.lets_play.dto.ProductPage;
+import com.example.lets_play.dto.ProductSort;
 import com.example.lets_play.dto.RegisterUserRequest;
 import com.example.lets_play.dto.UpdateUserRequest;
 import com.example.lets_play.dto.UpdateUserPasswordRequest;
 import com.example.lets_play.dto.UserProfileResponse;
 import com.example.lets_play.dto.UserResponse;
+import com.example.lets_play.security.AuthenticatedUser;
+import com.example.lets_play.security.PasswordHasher;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+
+    private static final Logger log = LoggerFactory.getLogger(UserController.class);
     
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public List<UserResponse> getAll() {
@@ -65,9 +88,9 @@ public class UserController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<?> updatePassword(
             @RequestBody UpdateUserPasswordRequest updateUserPasswordRequest,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
 
-        User user = userService.getUserFromToken(authHeader);
+        User user = userService.getUser(principal);
         userService.updatePassword(
                 user.getId(),
                 updateUserPasswordRequest.getOldPassword(),
@@ -80,10 +103,10 @@ public class UserController {
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<UserProfileResponse> getCurrentUser(
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         try {
-            User user = userService.getUserFromToken(authHeader);
+            User user = userService.getUser(principal);
             UserProfileResponse response = new UserProfileResponse(
                 user.getName(),
                 user.getEmail(),
@@ -92,13 +115,48 @@ public class UserController {
             
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            // Log the error for debugging
-            System.err.println("Error in getCurrentUser: " + e.getMessage());
-            e.printStackTrace();
+            log.debug("Error in getCurrentUser: {}", e.toString());
             throw e; // Re-throw to be handled by GlobalExceptionHandler
         }
     }
 
+    // Seller dashboards: one owner's products, paginated, with a cached total
+    @GetMapping("/{id}/products")
+    @PreAuthorize("isAuthenticated()")
+    public ProductPage getUserProducts(@PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String sort) {
+        validationService.validateObjectId(id, "User");
+        return productService.getProductsByOwner(id.trim(), ProductSort.parse(sort), cursor, limit,
+                ProductFields.parse(fields));
+    }
+
+    @GetMapping("/me/products")
+    @PreAuthorize("isAuthenticated()")
+    public ProductPage getMyProducts(@AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String sort) {
+        return productService.getProductsByOwner(userService.getUserId(user), ProductSort.parse(sort), cursor,
+                limit, ProductFields.parse(fields));
+    }
+
+    @GetMapping("/password-hashing-stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public PasswordHashingStats getPasswordHashingStats() {
+        return passwordHasher.stats();
+    }
+
+    // One-off repair of the per-role user counters; run while no user writes are in flight
+    @PostMapping("/role-counters/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Long> reconcileRoleCounters() {
+        return userService.reconcileRoleCounters();
+    }
+
     @GetMapping("/debug-auth")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<String> debugAuth() {
@@ -129,11 +187,11 @@ public class UserController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<String> deleteUser(@PathVariable String id,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal AuthenticatedUser principal) {
         
         try {
             // Get current admin user info
-            User currentUser = userService.getUserFromToken(authHeader);
+            User currentUser = userService.getUser(principal);
             
             // Prevent admin from deleting themselves
             if (currentUser.getId().equals(id)) {
@@ -147,8 +205,10 @@ public class UserController {
             // Delete the user
             userService.deleteUser(id);
             
-            // Log the deletion
-            System.out.println("Admin " + currentUser.getEmail() + " deleted user: " + userToDelete.getEmail());
+            log.atInfo().addKeyValue("event", "user_deleted")
+                    .addKeyValue("admin", currentUser.getEmail())
+                    .addKeyValue("user", userToDelete.getEmail())
+                    .log("Admin deleted user");
             
             return ResponseEntity.ok("User deleted successfully: " + userToDelete.getName());
             
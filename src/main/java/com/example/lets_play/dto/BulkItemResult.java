@@ -0,0 +1,38 @@
+package com.example.lets_play.dto;
+
+public class BulkItemResult {
+    private int index;
+    private String id;
+    private int status;
+    private String error;
+
+    public BulkItemResult() {}
+
+    public BulkItemResult(int index, String id, int status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static BulkItemResult ok(int index, String id) {
+        return new BulkItemResult(index, id, 200, null);
+    }
+
+    public static BulkItemResult failed(int index, String id, int status, String error) {
+        return new BulkItemResult(index, id, status, error);
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,12 @@
+package com.example.lets_play.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class BulkProductUpdateRequest extends ProductRequest {
+    @NotBlank(message = "Product ID is required")
+    private String id;
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+}
@@ -0,0 +1,27 @@
+package com.example.lets_play.dto;
+
+import java.util.List;
+
+public class BulkResponse {
+    private List<BulkItemResult> results;
+    private int succeeded;
+    private int failed;
+
+    public BulkResponse() {}
+
+    public BulkResponse(List<BulkItemResult> results) {
+        this.results = results;
+        this.succeeded = (int) results.stream().filter(r -> r.getError() == null).count();
+        this.failed = results.size() - succeeded;
+    }
+
+    // Getters and Setters
+    public List<BulkItemResult> getResults() { return results; }
+    public void setResults(List<BulkItemResult> results) { this.results = results; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+}
@@ -0,0 +1,50 @@
+package com.example.lets_play.dto;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+public class CacheStatsResponse {
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+
+    public CacheStatsResponse() {}
+
+    public CacheStatsResponse(long size, long hits, long misses, double hitRate, long evictions) {
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.hitRate = hitRate;
+        this.evictions = evictions;
+    }
+
+    // Static factory method to create from a Caffeine cache recording stats
+    public static CacheStatsResponse fromCache(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+            cache.estimatedSize(),
+            stats.hitCount(),
+            stats.missCount(),
+            stats.hitRate(),
+            stats.evictionCount()
+        );
+    }
+
+    // Getters and Setters
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public long getHits() { return hits; }
+    public void setHits(long hits) { this.hits = hits; }
+
+    public long getMisses() { return misses; }
+    public void setMisses(long misses) { this.misses = misses; }
+
+    public double getHitRate() { return hitRate; }
+    public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+
+    public long getEvictions() { return evictions; }
+    public void setEvictions(long evictions) { this.evictions = evictions; }
+}
@@ -0,0 +1,51 @@
+package com.example.lets_play.dto;
+
+public class PasswordHashingStats {
+    private int bcryptCost;
+    private int poolSize;
+    private int active;
+    private int queued;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private double averageMillis;
+
+    public PasswordHashingStats() {}
+
+    public PasswordHashingStats(int bcryptCost, int poolSize, int active, int queued, int queueCapacity,
+            long completed, long rejected, double averageMillis) {
+        this.bcryptCost = bcryptCost;
+        this.poolSize = poolSize;
+        this.active = active;
+        this.queued = queued;
+        this.queueCapacity = queueCapacity;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.averageMillis = averageMillis;
+    }
+
+    // Getters and Setters
+    public int getBcryptCost() { return bcryptCost; }
+    public void setBcryptCost(int bcryptCost) { this.bcryptCost = bcryptCost; }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getActive() { return active; }
+    public void setActive(int active) { this.active = active; }
+
+    public int getQueued() { return queued; }
+    public void setQueued(int queued) { this.queued = queued; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public double getAverageMillis() { return averageMillis; }
+    public void setAverageMillis(double averageMillis) { this.averageMillis = averageMillis; }
+}
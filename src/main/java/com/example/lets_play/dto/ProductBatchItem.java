@@ -0,0 +1,43 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.model.Product;
+
+/**
+ * One entry of a multi-get response: the product when it is visible, otherwise a status and error
+ */
+public class ProductBatchItem {
+    private String id;
+    private int status;
+    private String error;
+    private Product product;
+
+    public ProductBatchItem() {}
+
+    public ProductBatchItem(String id, int status, String error, Product product) {
+        this.id = id;
+        this.status = status;
+        this.error = error;
+        this.product = product;
+    }
+
+    public static ProductBatchItem found(Product product) {
+        return new ProductBatchItem(product.getId(), 200, null, product);
+    }
+
+    public static ProductBatchItem failed(String id, int status, String error) {
+        return new ProductBatchItem(id, status, error, null);
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public int getStatus() { return status; }
+    public void setStatus(int status) { this.status = status; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+}
@@ -0,0 +1,67 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.exception.ValidationException;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for product pagination.
+ * Holds the sort key of the last returned product plus its _id as tie-breaker,
+ * so the next page is an indexed range query instead of a skip.
+ */
+public class ProductCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String key;
+    private final String id;
+
+    public ProductCursor(String key, String id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Encodes the cursor as a URL-safe token
+     */
+    public String encode() {
+        String raw = (key == null ? "" : key) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, or returns null for an empty token
+     */
+    public static ProductCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+
+        int separator = raw.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new ValidationException("Invalid cursor");
+        }
+
+        String key = raw.substring(0, separator);
+        String id = raw.substring(separator + 1);
+        if (!ObjectId.isValid(id)) {
+            throw new ValidationException("Invalid cursor");
+        }
+
+        return new ProductCursor(key.isEmpty() ? null : key, id);
+    }
+
+    public String getKey() { return key; }
+
+    public String getId() { return id; }
+}
@@ -0,0 +1,79 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sparse fieldset requested through {@code ?fields=id,name,price}.
+ * Keeps both the JSON property names to serialize and the Mongo fields to project.
+ */
+public class ProductFields {
+
+    public static final String FILTER_ID = "productFields";
+
+    // Request name -> JSON property on Product ("name" is accepted as an alias of "title")
+    private static final Map<String, String> JSON_PROPERTIES = Map.of(
+            "id", "id",
+            "name", "title",
+            "title", "title",
+            "description", "description",
+            "price", "price",
+            "userId", "userId",
+            "version", "version");
+
+    // JSON property -> stored field
+    private static final Map<String, String> MONGO_FIELDS = Map.of(
+            "id", "_id",
+            "title", "name",
+            "description", "description",
+            "price", "price",
+            "userId", "userId",
+            "version", "version");
+
+    private final Set<String> jsonProperties;
+    private final Set<String> mongoFields;
+
+    private ProductFields(Set<String> jsonProperties) {
+        this.jsonProperties = Collections.unmodifiableSet(jsonProperties);
+        Set<String> fields = new LinkedHashSet<>();
+        jsonProperties.forEach(p -> fields.add(MONGO_FIELDS.get(p)));
+        this.mongoFields = Collections.unmodifiableSet(fields);
+    }
+
+    /**
+     * Parses a comma-separated field list, or returns null when every field is wanted
+     */
+    public static ProductFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> properties = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String property = JSON_PROPERTIES.get(name);
+            if (property == null) {
+                throw new ValidationException("Unknown product field: " + name);
+            }
+            properties.add(property);
+        }
+
+        if (properties.isEmpty()) {
+            return null;
+        }
+        // Id is always returned, it is what clients and cursors refer to
+        properties.add("id");
+        return new ProductFields(properties);
+    }
+
+    public Set<String> getJsonProperties() { return jsonProperties; }
+
+    public Set<String> getMongoFields() { return mongoFields; }
+}
@@ -0,0 +1,54 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.model.Product;
+
+/**
+ * Server-side filters and sort for product listings, backed by the compound indexes declared on
+ * {@link Product}. Without an explicit sort, a price range or name prefix sorts by that field, so
+ * the page is a bounded range scan on the matching index (after the owner, when one is given).
+ * An explicit sort on another key walks that key's index and filters, and when both a price range
+ * and a name prefix are given only the price range bounds the scan.
+ */
+public class ProductFilter {
+
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final String ownerId;
+    private final String namePrefix;
+    private final ProductSort sort;
+
+    public ProductFilter(Double minPrice, Double maxPrice, String ownerId, String namePrefix, ProductSort sort) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.ownerId = ownerId;
+        this.namePrefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+        this.sort = sort;
+    }
+
+    public boolean hasCriteria() {
+        return minPrice != null || maxPrice != null || ownerId != null || namePrefix != null;
+    }
+
+    public Double getMinPrice() { return minPrice; }
+
+    public Double getMaxPrice() { return maxPrice; }
+
+    public String getOwnerId() { return ownerId; }
+
+    public String getNamePrefix() { return namePrefix; }
+
+    public ProductSort getSort() { return sort; }
+
+    /**
+     * The requested sort, otherwise the filtered range field, otherwise oldest first
+     */
+    public ProductSort getSortOrDefault() {
+        if (sort != null) {
+            return sort;
+        }
+        if (minPrice != null || maxPrice != null) {
+            return ProductSort.PRICE_ASC;
+        }
+        return namePrefix != null ? ProductSort.NAME_ASC : ProductSort.OLDEST;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.model.Product;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public class ProductPage {
+    private List<Product> items;
+    private String nextCursor;
+
+    // Only set where a total is cheap to know (per-owner listings)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long total;
+
+    public ProductPage() {}
+
+    public ProductPage(List<Product> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<Product> getItems() { return items; }
+    public void setItems(List<Product> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public boolean isHasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,29 @@
+package com.example.lets_play.dto;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Partial product update: only non-null fields are validated and written
+ */
+public class ProductPatchRequest {
+    @Size(min = 2, max = 100, message = "Product name must be between 2 and 100 characters")
+    @Pattern(regexp = "^[a-zA-Z0-9\\s\\-_.]+$", message = "Product name contains invalid characters")
+    private String name;
+
+    @Size(min = 10, max = 500, message = "Product description must be between 10 and 500 characters")
+    private String description;
+
+    @DecimalMin(value = "0.01", message = "Product price must be greater than 0")
+    @DecimalMax(value = "999999.99", message = "Product price must be less than 1,000,000")
+    private Double price;
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Double getPrice() { return price; }
+    public void setPrice(Double price) { this.price = price; }
+}
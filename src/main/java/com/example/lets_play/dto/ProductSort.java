@@ -0,0 +1,89 @@
+package com.example.lets_play.dto;
+
+import com.example.lets_play.exception.ValidationException;
+import com.example.lets_play.model.Product;
+
+import java.util.Comparator;
+
+/**
+ * Sort orders accepted through {@code ?sort=}. Every order ends with _id as tie-breaker,
+ * so a cursor built from the last row's sort key and id always resumes exactly.
+ * Recency uses the _id itself, since ObjectIds start with their creation time.
+ */
+public enum ProductSort {
+    OLDEST("oldest"),
+    NEWEST("newest"),
+    PRICE_ASC("price"),
+    PRICE_DESC("-price"),
+    NAME_ASC("name"),
+    NAME_DESC("-name");
+
+    private final String param;
+
+    ProductSort(String param) {
+        this.param = param;
+    }
+
+    /**
+     * Parses a sort parameter, or returns null when none was given
+     */
+    public static ProductSort parse(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        for (ProductSort candidate : values()) {
+            if (candidate.param.equalsIgnoreCase(sort.trim())) {
+                return candidate;
+            }
+        }
+        throw new ValidationException("Unknown sort: " + sort.trim() + " (use oldest, newest, price, -price, name or -name)");
+    }
+
+    public boolean isByPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    public boolean isByName() {
+        return this == NAME_ASC || this == NAME_DESC;
+    }
+
+    public boolean isDescending() {
+        return this == NEWEST || this == PRICE_DESC || this == NAME_DESC;
+    }
+
+    /**
+     * Stored field sorted on before _id, null when the id alone is the key
+     */
+    public String sortField() {
+        if (isByPrice()) {
+            return "price";
+        }
+        return isByName() ? "name" : null;
+    }
+
+    /**
+     * Same order as the Mongo sort, for results ordered in memory
+     */
+    public Comparator<Product> comparator() {
+        Comparator<Product> byId = Comparator.comparing(Product::getId);
+        Comparator<Product> order = byId;
+        if (isByPrice()) {
+            order = Comparator.comparing(Product::getPrice, Comparator.nullsFirst(Comparator.<Double>naturalOrder()))
+                    .thenComparing(byId);
+        } else if (isByName()) {
+            order = Comparator.comparing(Product::getTitle, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(byId);
+        }
+        return isDescending() ? order.reversed() : order;
+    }
+
+    /**
+     * Sort key stored in the cursor next to the id, null when the id alone is the key
+     */
+    public String cursorKey(Product product) {
+        if (isByPrice()) {
+            return product.getPrice() != null ? product.getPrice().toString() : null;
+        }
+        return isByName() ? product.getTitle() : null;
+    }
+}
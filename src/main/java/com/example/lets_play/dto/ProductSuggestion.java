@@ -0,0 +1,20 @@
+package com.example.lets_play.dto;
+
+public class ProductSuggestion {
+    private String id;
+    private String title;
+
+    public ProductSuggestion() {}
+
+    public ProductSuggestion(String id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+}
@@ -0,0 +1,52 @@
+package com.example.lets_play.dto;
+
+public class RevocationStats {
+    private long revokedTokens;
+    private long checks;
+    private long bloomPositives;
+    private long falsePositives;
+    private double observedFalsePositiveRate;
+    private double estimatedFalsePositiveRate;
+    private int bloomGenerations;
+    private long bloomMemoryBytes;
+
+    public RevocationStats() {}
+
+    public RevocationStats(long revokedTokens, long checks, long bloomPositives, long falsePositives,
+            double observedFalsePositiveRate, double estimatedFalsePositiveRate,
+            int bloomGenerations, long bloomMemoryBytes) {
+        this.revokedTokens = revokedTokens;
+        this.checks = checks;
+        this.bloomPositives = bloomPositives;
+        this.falsePositives = falsePositives;
+        this.observedFalsePositiveRate = observedFalsePositiveRate;
+        this.estimatedFalsePositiveRate = estimatedFalsePositiveRate;
+        this.bloomGenerations = bloomGenerations;
+        this.bloomMemoryBytes = bloomMemoryBytes;
+    }
+
+    // Getters and Setters
+    public long getRevokedTokens() { return revokedTokens; }
+    public void setRevokedTokens(long revokedTokens) { this.revokedTokens = revokedTokens; }
+
+    public long getChecks() { return checks; }
+    public void setChecks(long checks) { this.checks = checks; }
+
+    public long getBloomPositives() { return bloomPositives; }
+    public void setBloomPositives(long bloomPositives) { this.bloomPositives = bloomPositives; }
+
+    public long getFalsePositives() { return falsePositives; }
+    public void setFalsePositives(long falsePositives) { this.falsePositives = falsePositives; }
+
+    public double getObservedFalsePositiveRate() { return observedFalsePositiveRate; }
+    public void setObservedFalsePositiveRate(double observedFalsePositiveRate) { this.observedFalsePositiveRate = observedFalsePositiveRate; }
+
+    public double getEstimatedFalsePositiveRate() { return estimatedFalsePositiveRate; }
+    public void setEstimatedFalsePositiveRate(double estimatedFalsePositiveRate) { this.estimatedFalsePositiveRate = estimatedFalsePositiveRate; }
+
+    public int getBloomGenerations() { return bloomGenerations; }
+    public void setBloomGenerations(int bloomGenerations) { this.bloomGenerations = bloomGenerations; }
+
+    public long getBloomMemoryBytes() { return bloomMemoryBytes; }
+    public void setBloomMemoryBytes(long bloomMemoryBytes) { this.bloomMemoryBytes = bloomMemoryBytes; }
+}
@@ -1,6 +1,10 @@
 package com.example.lets_play.exception;
 
 import com.example.lets_play.dto.ErrorResponse;
+import com.example.lets_play.config.LogRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +19,9 @@ import org.springframework.security.core.AuthenticationException;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final LogRateLimiter ERROR_LOG = new LogRateLimiter(10);
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(ResourceNotFoundException ex) {
         ErrorResponse error = new ErrorResponse("Not Found", ex.getMessage(), HttpStatus.NOT_FOUND.value());
@@ -43,6 +50,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(ex.getStatusCode()).body(error);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLocking(OptimisticLockingFailureException ex) {
+        ErrorResponse error = new ErrorResponse("Conflict", "Resource was modified by another request", HttpStatus.CONFLICT.value());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(NoHandlerFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(NoHandlerFoundException ex) {
         ErrorResponse error = new ErrorResponse("Not Found", "Route not found: " + ex.getRequestURL(), HttpStatus.NOT_FOUND.value());
@@ -70,7 +83,10 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAll(Exception ex) {
-        ex.printStackTrace(); // Log on server
+        // Stack traces are expensive to render; under an error storm keep a sample
+        if (ERROR_LOG.tryAcquire()) {
+            log.error("Unhandled exception (suppressed={})", ERROR_LOG.drainSuppressed(), ex);
+        }
         ErrorResponse error = new ErrorResponse("Internal Server Error", "Something went wrong: " + ex.getMessage(), HttpStatus.BAD_REQUEST.value());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
@@ -1,22 +1,40 @@
 package com.example.lets_play.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import jakarta.validation.constraints.*;
 
 @Document(collection = "products")
+@CompoundIndexes({
+    // Owner lookups and owner listings by recency
+    @CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}"),
+    // Price range filters and price sort (the default sort for a price range), _id as keyset tie-breaker
+    @CompoundIndex(name = "price_id", def = "{'price': 1, '_id': 1}"),
+    @CompoundIndex(name = "userId_price_id", def = "{'userId': 1, 'price': 1, '_id': 1}"),
+    // Name prefix filter and name sort (the default sort for a prefix)
+    @CompoundIndex(name = "name_id", def = "{'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "userId_name_id", def = "{'userId': 1, 'name': 1, '_id': 1}")
+})
+@JsonFilter("productFields") // narrowed per request by ?fields=
 public class Product {
     @Id
     private String id;
 
     @Field("name")
+    @TextIndexed(weight = 3)
     @NotBlank(message = "Product name is required")
     @Size(min = 2, max = 100, message = "Product name must be between 2 and 100 characters")
     @Pattern(regexp = "^[a-zA-Z0-9\\s\\-_.]+$", message = "Product name contains invalid characters")
     private String title;
 
+    @TextIndexed
     @NotBlank(message = "Product description is required")
     @Size(min = 10, max = 500, message = "Product description must be between 10 and 500 characters")
     private String description;
@@ -30,6 +48,10 @@ public class Product {
     @Pattern(regexp = "^[a-fA-F0-9]{24}$", message = "Invalid user ID format")
     private String userId;
 
+    // Bumped on every write; drives ETags and optimistic locking (If-Match)
+    @Version
+    private Long version;
+
     public Product() {}
     public Product(String title, String description, Double price, String userId) {
             this.title = title;
@@ -68,4 +90,10 @@ public class Product {
     public void setUserId(String userId) {
             this.userId = userId;
     }
+    public Long getVersion() {
+            return version;
+    }
+    public void setVersion(Long version) {
+            this.version = version;
+    }
 }
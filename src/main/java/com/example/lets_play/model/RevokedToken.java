@@ -0,0 +1,50 @@
+package com.example.lets_play.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A revoked JWT, shared by all instances. Mongo deletes the document once the token
+ * has expired (TTL index), since an expired token is rejected anyway.
+ */
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String digest;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Date expiresAt;
+
+    // Instances tail the collection on this field to pick up revocations made elsewhere
+    @Indexed
+    private Date revokedAt;
+
+    public RevokedToken() {}
+    public RevokedToken(String digest, Date expiresAt, Date revokedAt) {
+        this.digest = digest;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+    public void setDigest(String digest) {
+        this.digest = digest;
+    }
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    public Date getRevokedAt() {
+        return revokedAt;
+    }
+    public void setRevokedAt(Date revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.lets_play.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import java.util.Locale;
+
 @Document(collection = "users")
 public class User {
   @Id
@@ -18,6 +21,8 @@ public class User {
   @NotBlank(message = "Email is required")
   @Email(message = "Please provide a valid email address")
   @Size(max = 100, message = "Email must be less than 100 characters")
+  // Stored lower-cased, so uniqueness is case-insensitive. The unique index is created by
+  // UserEmailMigration once older mixed-case emails have been normalized.
   private String email;
   
   @NotBlank(message = "Password is required")
@@ -26,13 +31,21 @@ public class User {
   
   @NotBlank(message = "Role is required")
   @Pattern(regexp = "^(USER|ADMIN)$", message = "Role must be either USER or ADMIN")
+  @Indexed
   private String role; // "USER" or "ADMIN"
 
   // Constructors
   public User() {}
+  /**
+   * Canonical form used for storage and lookups: trimmed and lower-cased
+   */
+  public static String normalizeEmail(String email) {
+      return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+  }
+
   public User(String name, String email, String password, String role) {
       this.name = name;
-      this.email = email;
+      this.email = normalizeEmail(email);
       this.password = password;
       this.role = role;
   }
@@ -53,7 +66,7 @@ public class User {
       return email;
   }
   public void setEmail(String email) {  
-      this.email = email;
+      this.email = normalizeEmail(email);
   }
   public String getPassword() {
       return password;
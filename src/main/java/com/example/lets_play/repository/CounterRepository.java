@@ -0,0 +1,7 @@
+package com.example.lets_play.repository;
+
+import com.example.lets_play.model.Counter;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface CounterRepository extends MongoRepository<Counter, String>, CounterRepositoryCustom {
+}
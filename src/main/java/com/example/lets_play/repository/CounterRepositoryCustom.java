@@ -0,0 +1,20 @@
+package com.example.lets_play.repository;
+
+public interface CounterRepositoryCustom {
+  /**
+   * Atomically adds {@code delta} to the counter, creating it if missing, and returns the new value
+   */
+  long increment(String id, long delta);
+
+  /**
+   * Atomically decrements the counter only while it is above {@code floor}.
+   * Returns false, leaving it unchanged, when it is at or below the floor or missing.
+   */
+  boolean decrementIfAbove(String id, long floor);
+
+  /**
+   * Creates the counter with {@code value} only if it does not exist yet ($setOnInsert upsert),
+   * so it never overwrites increments made concurrently. Returns true when it was created.
+   */
+  boolean createIfMissing(String id, long value);
+}
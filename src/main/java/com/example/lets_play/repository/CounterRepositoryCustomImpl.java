@@ -0,0 +1,46 @@
+package com.example.lets_play.repository;
+
+import com.example.lets_play.model.Counter;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class CounterRepositoryCustomImpl implements CounterRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CounterRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long increment(String id, long delta) {
+        Counter counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().inc("value", delta),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Counter.class);
+        return counter == null ? 0 : counter.getValue();
+    }
+
+    @Override
+    public boolean decrementIfAbove(String id, long floor) {
+        Counter counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and("value").gt(floor)),
+                new Update().inc("value", -1),
+                Counter.class);
+        return counter != null;
+    }
+
+    @Override
+    public boolean createIfMissing(String id, long value) {
+        UpdateResult result = mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(id)),
+                new Update().setOnInsert("value", value),
+                Counter.class);
+        return result.getUpsertedId() != null;
+    }
+}
@@ -1,11 +1,28 @@
 package com.example.lets_play.repository;
 
 import com.example.lets_play.model.Product;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
-  List<Product> findByTitleContainingIgnoreCase(String q);
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
   long deleteByUserId(String userId);
   List<Product> findByUserId(String userId);
+
+  // Covered by the (userId, _id) index
+  boolean existsByIdAndUserId(String id, String userId);
+
+  // Count scan on the (userId, _id) index
+  long countByUserId(String userId);
+
+  // Backed by a server-side cursor; callers must close the stream
+  @Meta(cursorBatchSize = 1000)
+  Stream<Product> streamAllByOrderByIdAsc();
+
+  // Id and name only, for building in-memory title structures
+  @Meta(cursorBatchSize = 1000)
+  @Query(value = "{}", fields = "{ 'name' : 1 }")
+  Stream<Product> streamTitlesBy();
 }
@@ -0,0 +1,69 @@
+package com.example.lets_play.repository;
+
+import com.example.lets_play.dto.ProductCursor;
+import com.example.lets_play.dto.ProductFilter;
+import com.example.lets_play.model.Product;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ProductRepositoryCustom {
+  /**
+   * Keyset page in the filter's sort order (oldest first by default), optionally narrowed
+   * by a case-insensitive title match. Returns at most {@code limit} products strictly after {@code after}.
+   * A non-null {@code fields} projects only those stored fields.
+   */
+  List<Product> findPage(String titleQuery, ProductFilter filter, ProductCursor after, int limit,
+      Collection<String> fields);
+
+  /**
+   * Full-text search over name and description using the text index, narrowed by the filter.
+   * Ordered by relevance unless the filter names a sort, in which case it is keyset-paginated like findPage.
+   */
+  List<Product> findByText(String text, ProductFilter filter, ProductCursor after, int limit,
+      Collection<String> fields);
+
+  Optional<Product> findProjectedById(String id, Collection<String> fields);
+
+  /**
+   * Products among {@code ids} that pass the filter, in no particular order.
+   * A non-null {@code fields} projects only those stored fields.
+   */
+  List<Product> findAllById(Collection<String> ids, ProductFilter filter, Collection<String> fields);
+
+  /**
+   * Unordered bulk insert. Returns write errors keyed by position in {@code products}.
+   */
+  Map<Integer, String> bulkInsert(List<Product> products);
+
+  /**
+   * Unordered bulk $set of name, description and price, each matching _id plus the version the product
+   * carries (the version it was loaded with), and bumping that version. An item that matched nothing
+   * (deleted or concurrently modified) is not an error, so compare {@code matched} to the batch size.
+   */
+  BulkUpdateOutcome bulkUpdate(List<Product> products);
+
+  /**
+   * Documents matched by a bulk update, and write errors keyed by position
+   */
+  record BulkUpdateOutcome(long matched, Map<Integer, String> failures) {}
+
+  /**
+   * Unordered bulk delete by _id. Returns write errors keyed by position.
+   */
+  Map<Integer, String> bulkDelete(List<String> ids);
+
+  /**
+   * Single findAndModify: $set the given stored fields and bump the version,
+   * matching {@code expectedVersion} when it is not null.
+   * Returns the updated product, or null when nothing matched.
+   */
+  Product updateIfVersion(String id, Long expectedVersion, Map<String, Object> changes);
+
+  /**
+   * Single findAndRemove, matching {@code expectedVersion} when it is not null.
+   * Returns the deleted product, or null when nothing matched.
+   */
+  Product deleteIfVersion(String id, Long expectedVersion);
+}
@@ -0,0 +1,254 @@
+package com.example.lets_play.repository;
+
+import com.example.lets_play.dto.ProductCursor;
+import com.example.lets_play.dto.ProductFilter;
+import com.example.lets_play.dto.ProductSort;
+import com.example.lets_play.exception.ValidationException;
+import com.example.lets_play.model.Product;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Product> findPage(String titleQuery, ProductFilter filter, ProductCursor after, int limit,
+            Collection<String> fields) {
+        List<Criteria> criteria = filterCriteria(filter);
+        if (titleQuery != null && !titleQuery.isEmpty()) {
+            criteria.add(Criteria.where("name").regex(Pattern.quote(titleQuery), "i"));
+        }
+
+        Query query = new Query();
+        project(query, fields);
+        applyKeyset(query, criteria, filter.getSortOrDefault(), after);
+        return mongoTemplate.find(query.limit(limit), Product.class);
+    }
+
+    @Override
+    public List<Product> findByText(String text, ProductFilter filter, ProductCursor after, int limit,
+            Collection<String> fields) {
+        TextCriteria textCriteria = TextCriteria.forDefaultLanguage().matching(text);
+        TextQuery query = TextQuery.queryText(textCriteria);
+        project(query, fields);
+
+        List<Criteria> criteria = filterCriteria(filter);
+        if (filter.getSort() == null) {
+            addAll(query, criteria);
+            query.sortByScore();
+        } else {
+            applyKeyset(query, criteria, filter.getSort(), after);
+        }
+        return mongoTemplate.find(query.limit(limit), Product.class);
+    }
+
+    @Override
+    public Optional<Product> findProjectedById(String id, Collection<String> fields) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        project(query, fields);
+        return Optional.ofNullable(mongoTemplate.findOne(query, Product.class));
+    }
+
+    @Override
+    public List<Product> findAllById(Collection<String> ids, ProductFilter filter, Collection<String> fields) {
+        List<Criteria> criteria = filterCriteria(filter);
+        criteria.add(Criteria.where("_id").in(ids));
+
+        Query query = new Query();
+        project(query, fields);
+        addAll(query, criteria);
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    @Override
+    public Map<Integer, String> bulkInsert(List<Product> products) {
+        if (products.isEmpty()) {
+            return new HashMap<>();
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        ops.insert(products);
+        return execute(ops);
+    }
+
+    @Override
+    public BulkUpdateOutcome bulkUpdate(List<Product> products) {
+        if (products.isEmpty()) {
+            return new BulkUpdateOutcome(0, new HashMap<>());
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (Product product : products) {
+            Update update = new Update()
+                    .set("name", product.getTitle())
+                    .set("description", product.getDescription())
+                    .set("price", product.getPrice())
+                    .inc("version", 1);
+            long loadedVersion = product.getVersion() == null ? 0 : product.getVersion();
+            ops.updateOne(versionedQuery(product.getId(), loadedVersion), update);
+        }
+
+        Map<Integer, String> failures = new HashMap<>();
+        BulkWriteResult result;
+        try {
+            result = ops.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+            result = e.getResult();
+        }
+        return new BulkUpdateOutcome(result.getMatchedCount(), failures);
+    }
+
+    @Override
+    public Map<Integer, String> bulkDelete(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+        for (String id : ids) {
+            ops.remove(Query.query(Criteria.where("_id").is(id)));
+        }
+        return execute(ops);
+    }
+
+    @Override
+    public Product updateIfVersion(String id, Long expectedVersion, Map<String, Object> changes) {
+        Update update = new Update().inc("version", 1);
+        changes.forEach(update::set);
+        return mongoTemplate.findAndModify(versionedQuery(id, expectedVersion), update,
+                FindAndModifyOptions.options().returnNew(true), Product.class);
+    }
+
+    @Override
+    public Product deleteIfVersion(String id, Long expectedVersion) {
+        return mongoTemplate.findAndRemove(versionedQuery(id, expectedVersion), Product.class);
+    }
+
+    // Price range and owner are equality/range predicates on the leading index fields;
+    // the name prefix is a [prefix, prefix + max char) range on the name index
+    private static List<Criteria> filterCriteria(ProductFilter filter) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getOwnerId() != null) {
+            criteria.add(Criteria.where("userId").is(filter.getOwnerId()));
+        }
+        if (filter.getMinPrice() != null) {
+            criteria.add(Criteria.where("price").gte(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            criteria.add(Criteria.where("price").lte(filter.getMaxPrice()));
+        }
+        if (filter.getNamePrefix() != null) {
+            criteria.add(Criteria.where("name").gte(filter.getNamePrefix())
+                    .lt(filter.getNamePrefix() + Character.MAX_VALUE));
+        }
+        return criteria;
+    }
+
+    /**
+     * Adds the filters, the range after the cursor and the matching sort.
+     * Price and name orders resume at (key, _id) past the cursor, so ties on the key are not skipped or repeated.
+     */
+    private static void applyKeyset(Query query, List<Criteria> criteria, ProductSort sort, ProductCursor after) {
+        Sort.Direction direction = sort.isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        String field = sort.sortField();
+
+        if (after != null) {
+            ObjectId lastId = new ObjectId(after.getId());
+            Criteria idAfter = sort.isDescending()
+                    ? Criteria.where("_id").lt(lastId)
+                    : Criteria.where("_id").gt(lastId);
+
+            if (field != null) {
+                Object lastKey = sort.isByPrice() ? parsePrice(after.getKey()) : requireKey(after.getKey());
+                Criteria keyAfter = sort.isDescending()
+                        ? Criteria.where(field).lt(lastKey)
+                        : Criteria.where(field).gt(lastKey);
+                criteria.add(new Criteria().orOperator(keyAfter,
+                        new Criteria().andOperator(Criteria.where(field).is(lastKey), idAfter)));
+            } else {
+                criteria.add(idAfter);
+            }
+        }
+
+        addAll(query, criteria);
+        query.with(field != null
+                ? Sort.by(direction, field).and(Sort.by(direction, "_id"))
+                : Sort.by(direction, "_id"));
+    }
+
+    // One $and, since a Query cannot hold two criteria on the same field (e.g. min and max price)
+    private static void addAll(Query query, List<Criteria> criteria) {
+        if (!criteria.isEmpty()) {
+            query.addCriteria(criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria));
+        }
+    }
+
+    private static double parsePrice(String key) {
+        try {
+            return Double.parseDouble(key);
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new ValidationException("Invalid cursor for this sort");
+        }
+    }
+
+    private static String requireKey(String key) {
+        if (key == null) {
+            throw new ValidationException("Invalid cursor for this sort");
+        }
+        return key;
+    }
+
+    private static Query versionedQuery(String id, Long expectedVersion) {
+        Query query = Query.query(Criteria.where("_id").is(id));
+        if (expectedVersion != null) {
+            // Documents written before versioning have no field; is(0) would not match them
+            query.addCriteria(expectedVersion == 0
+                    ? new Criteria().orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                    : Criteria.where("version").is(expectedVersion));
+        }
+        return query;
+    }
+
+    private static void project(Query query, Collection<String> fields) {
+        if (fields != null) {
+            fields.forEach(field -> query.fields().include(field));
+        }
+    }
+
+    // Unordered mode keeps going past failed rows; collect them instead of failing the batch
+    private Map<Integer, String> execute(BulkOperations ops) {
+        Map<Integer, String> failures = new HashMap<>();
+        try {
+            ops.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.lets_play.repository;
+
+import com.example.lets_play.model.RevokedToken;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.Date;
+import java.util.stream.Stream;
+
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+  // Revocations recorded since the given time, oldest first (revokedAt index)
+  @Meta(cursorBatchSize = 1000)
+  Stream<RevokedToken> findByRevokedAtGreaterThanEqualOrderByRevokedAtAsc(Date since);
+
+  // Every still-live revocation, for the initial load
+  @Meta(cursorBatchSize = 1000)
+  Stream<RevokedToken> streamByExpiresAtAfter(Date now);
+}
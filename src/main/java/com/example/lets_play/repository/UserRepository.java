@@ -8,4 +8,11 @@ public interface UserRepository extends MongoRepository<User, String> {
   Optional<User> findById(String id);
   Optional<User> findByEmail(String email);
   Optional<User> findByname(String name);
+
+  // Both answered from the role index
+  long countByRole(String role);
+  boolean existsByRole(String role);
+
+  // Unlike deleteById, reports how many documents were removed (0 when a concurrent delete won)
+  long removeById(String id);
 }
@@ -0,0 +1,61 @@
+package com.example.lets_play.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+import java.io.Serializable;
+
+/**
+ * Principal built from verified JWT claims, so the user id is available
+ * to authorization checks without loading the user.
+ * getName() stays the email, so authentication.name keeps its meaning.
+ */
+public class AuthenticatedUser implements AuthenticatedPrincipal, Serializable {
+
+    private final String id;
+    private final String email;
+    private final String role;
+    private final VerifiedClaims claims;
+
+    public AuthenticatedUser(VerifiedClaims claims) {
+        this.id = claims.getUserId();
+        this.email = claims.getEmail();
+        this.role = claims.getRole();
+        this.claims = claims;
+    }
+
+    /**
+     * Claims of the token this request was authenticated with
+     */
+    public VerifiedClaims getClaims() {
+        return claims;
+    }
+
+    /**
+     * User id from the token, or null for tokens issued before the claim existed
+     */
+    public String getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equals(role);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
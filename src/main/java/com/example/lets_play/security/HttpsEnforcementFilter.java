@@ -7,6 +7,9 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import com.example.lets_play.config.LogRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -20,6 +23,9 @@ import java.io.IOException;
 @Order(1) // Run before other filters
 public class HttpsEnforcementFilter implements Filter {
 
+    private static final Logger log = LoggerFactory.getLogger(HttpsEnforcementFilter.class);
+    private static final LogRateLimiter REDIRECT_LOG = new LogRateLimiter(5);
+
     @Value("${app.enforce-https:true}")
     private boolean enforceHttps;
 
@@ -52,8 +58,13 @@ public class HttpsEnforcementFilter implements Filter {
         if (!isSecure) {
             String httpsUrl = buildHttpsUrl(httpRequest);
             
-            // Log the redirect attempt
-            System.out.println("🔒 Redirecting HTTP to HTTPS: " + httpRequest.getRequestURL());
+            // Log the redirect attempt; a misconfigured client can hit this on every request
+            if (log.isInfoEnabled() && REDIRECT_LOG.tryAcquire()) {
+                log.atInfo().addKeyValue("event", "https_redirect")
+                        .addKeyValue("uri", httpRequest.getRequestURI())
+                        .addKeyValue("suppressed", REDIRECT_LOG.drainSuppressed())
+                        .log("Redirecting HTTP to HTTPS");
+            }
             
             httpResponse.setStatus(HttpServletResponse.SC_MOVED_PERMANENTLY);
             httpResponse.setHeader("Location", httpsUrl);
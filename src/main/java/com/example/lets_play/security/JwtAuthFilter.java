@@ -6,9 +6,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.method.P;
+import com.example.lets_play.config.LogRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,6 +22,11 @@ import java.util.Collections;
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthFilter.class);
+    // A replayed revoked token can arrive at request rate; report a sample
+    private static final LogRateLimiter REJECTED_LOG = new LogRateLimiter(5);
+    private static final LogRateLimiter FAILURE_LOG = new LogRateLimiter(5);
+
     private final JwtService jwtService;
     private final TokenBlacklistService tokenBlacklistService;
 
@@ -36,45 +41,52 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        String email = null;
+        VerifiedClaims claims = null;
         String token = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
             
-            // Check if token is blacklisted
-            if (tokenBlacklistService.isTokenBlacklisted(token)) {
-                System.out.println("🚫 Blacklisted token rejected");
-                filterChain.doFilter(request, response);
-                return;
-            }
-            
             try {
-                email = jwtService.extractEmail(token);
+                // Parsed once per request (and not at all for a recently seen token)
+                claims = jwtService.verify(token);
             } catch (Exception e) {
                 // invalid token
             }
+
+            // Check if token is blacklisted, by the digest computed during verification
+            if (claims != null && tokenBlacklistService.isRevoked(claims)) {
+                if (log.isInfoEnabled() && REJECTED_LOG.tryAcquire()) {
+                    log.atInfo().addKeyValue("event", "token_rejected")
+                            .addKeyValue("digest", claims.getDigest().substring(0, 10))
+                            .addKeyValue("suppressed", REJECTED_LOG.drainSuppressed())
+                            .log("Revoked token rejected");
+                }
+                filterChain.doFilter(request, response);
+                return;
+            }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && claims.getEmail() != null
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                String role = jwtService.extractRole(authHeader);
-                String authority = "ROLE_" + role;
-                
-                // Debug logging
-                System.out.println("🔍 JWT Debug - Email: " + email + ", Role: " + role + ", Authority: " + authority);
-                
+                String authority = "ROLE_" + claims.getRole();
                 SimpleGrantedAuthority grantedAuthority = new SimpleGrantedAuthority(authority);
                 
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(email, null, Collections.singletonList(grantedAuthority));
+                        new UsernamePasswordAuthenticationToken(new AuthenticatedUser(claims), null,
+                                Collections.singletonList(grantedAuthority));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                
-                System.out.println("✅ Authentication set successfully for user: " + email + " with role: " + role);
+
+                log.atDebug().addKeyValue("event", "authenticated")
+                        .addKeyValue("user", claims.getEmail())
+                        .addKeyValue("role", claims.getRole())
+                        .log("Authentication set");
             } catch (Exception e) {
-                System.err.println("❌ Error setting authentication: " + e.getMessage());
-                e.printStackTrace();
+                if (FAILURE_LOG.tryAcquire()) {
+                    log.warn("Error setting authentication (suppressed={})", FAILURE_LOG.drainSuppressed(), e);
+                }
             }
         }
 
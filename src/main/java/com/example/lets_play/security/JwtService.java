@@ -1,59 +1,115 @@
 package com.example.lets_play.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
 
     private static final String SECRET_KEY = "ZmFrZXNlY3JldGtleWZha2VzZWNyZXRrZXlmYWtlc2VjcmV0a2V5";
 
-    private static final long EXPIRATION_MS = 1000 * 60 * 60 * 24; // 1 day
+    public static final long EXPIRATION_MS = 1000 * 60 * 60 * 24; // 1 day
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    // Key and parser are immutable and thread-safe, so they are built once
+    private final Key signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+
+    // Verified claims by token digest; each entry expires exactly when its token does
+    private final Cache<String, VerifiedClaims> verified;
+
+    public JwtService(@Value("${app.jwt.claims-cache.max-size:100000}") long maxSize) {
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedClaims>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedClaims claims, long currentTime) {
+                        long remaining = claims.getExpiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedClaims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedClaims claims, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
-    // generating token with email and role
-    public String generateToken(String subject, String role) {
+    // generating token with email, role and user id
+    public String generateToken(String subject, String role, String userId) {
         return Jwts.builder()
                 .setSubject(subject)          // usually email
                 .claim("role", role)
+                .claim("uid", userId)         // lets ownership checks skip the user lookup
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractEmail(String authHeader) {
-        if (authHeader.startsWith("Bearer ")) {
-            authHeader = authHeader.substring(7);
+    /**
+     * Verifies the token (with or without the "Bearer " prefix) and returns its claims.
+     * A token seen before is answered from the cache without checking the signature again.
+     * Throws io.jsonwebtoken.JwtException when the token is invalid or expired.
+     */
+    public VerifiedClaims verify(String authHeader) {
+        String token = stripBearer(authHeader);
+        String digest = digest(token);
+
+        VerifiedClaims cached = verified.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            return cached;
         }
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authHeader)
-                .getBody();
-        return claims.getSubject();
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedClaims fresh = new VerifiedClaims(digest, claims.getSubject(),
+                claims.get("role", String.class), claims.get("uid", String.class),
+                claims.getExpiration() == null ? Long.MAX_VALUE : claims.getExpiration().getTime());
+        verified.put(digest, fresh);
+        return fresh;
     }
 
-    public String extractRole(String authHeader) {
-        if (authHeader.startsWith("Bearer ")) {
-            authHeader = authHeader.substring(7);
-        }
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authHeader)
-                .getBody();
-        return claims.get("role", String.class);
+    public static String stripBearer(String authHeader) {
+        return authHeader.startsWith("Bearer ") ? authHeader.substring(7) : authHeader;
+    }
+
+    /**
+     * Fixed-size identity of a token: SHA-256, URL-safe base64
+     */
+    public static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
     }
 }
@@ -0,0 +1,173 @@
+package com.example.lets_play.security;
+
+import com.example.lets_play.dto.PasswordHashingStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs bcrypt on its own bounded pool, so a login burst cannot take every request thread's CPU.
+ * When the queue is full callers get 503 right away instead of piling up.
+ * The bcrypt cost is calibrated at startup to a target hash time on the current hardware.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final long timeoutMillis;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    public PasswordHasher(@Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.timeout-ms:5000}") long timeoutMillis,
+            @Value("${app.security.bcrypt.target-ms:250}") long targetMillis,
+            @Value("${app.security.bcrypt.min-cost:10}") int minCost,
+            @Value("${app.security.bcrypt.max-cost:14}") int maxCost) {
+        this.cost = calibrate(targetMillis, minCost, maxCost);
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+
+        // Default to half the cores: hashing is CPU-bound and must leave room for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * True when the stored hash is weaker than the calibrated cost. Stronger hashes are kept,
+     * so nodes that calibrated differently do not rehash the same user back and forth.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int stored = costOf(encodedPassword);
+        return stored > 0 && stored < cost;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public PasswordHashingStats stats() {
+        long done = completed.get();
+        return new PasswordHashingStats(cost, executor.getCorePoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, done, rejected.get(),
+                done == 0 ? 0 : totalNanos.get() / 1_000_000.0 / done);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    totalNanos.addAndGet(System.nanoTime() - start);
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw busy();
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static ResponseStatusException busy() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many password operations, retry shortly");
+    }
+
+    /**
+     * Highest cost whose hash time stays within the target. Each cost step doubles the work,
+     * so one timed hash at the minimum cost is enough to extrapolate the rest.
+     */
+    static int calibrate(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration"); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int chosen = minCost;
+        double nanos = best;
+        while (chosen < maxCost && nanos * 2 <= targetMillis * 1_000_000.0) {
+            nanos *= 2;
+            chosen++;
+        }
+        return chosen;
+    }
+
+    /**
+     * Cost encoded in a bcrypt hash ("$2a$10$..."), or -1 when it is not a bcrypt hash
+     */
+    static int costOf(String encodedPassword) {
+        if (encodedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.lets_play.security;
+
+import java.io.Serializable;
+
+/**
+ * Claims of a token whose signature and expiry have already been checked.
+ * Produced once per token by {@link JwtService#verify(String)} and carried on the
+ * security context, so nothing downstream has to parse the token again.
+ */
+public class VerifiedClaims implements Serializable {
+
+    private final String digest;
+    private final String email;
+    private final String role;
+    private final String userId;
+    private final long expiresAtMillis;
+
+    public VerifiedClaims(String digest, String email, String role, String userId, long expiresAtMillis) {
+        this.digest = digest;
+        this.email = email;
+        this.role = role;
+        this.userId = userId;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    /**
+     * SHA-256 of the raw token, URL-safe base64. Identifies the token without keeping it.
+     */
+    public String getDigest() {
+        return digest;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * User id claim, or null for tokens issued before the claim existed
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
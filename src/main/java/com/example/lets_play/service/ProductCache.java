@@ -0,0 +1,84 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.dto.CacheStatsResponse;
+import com.example.lets_play.model.Product;
+import com.example.lets_play.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded read-through cache in front of ProductRepository.findById.
+ * Caffeine evicts by W-TinyLFU and entries expire after the TTL, which also bounds
+ * how long writes made on other instances can go unnoticed.
+ * Cached products are shared; callers must not modify them.
+ */
+@Component
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+    private final Cache<String, Product> cache;
+
+    public ProductCache(ProductRepository productRepository,
+            @Value("${app.products.cache.max-size:10000}") long maxSize,
+            @Value("${app.products.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Loads through Caffeine's atomic compute, so an invalidate issued while the load is running
+     * waits for it and then removes the result, instead of a stale product being cached afterwards
+     */
+    public Optional<Product> findById(String productId) {
+        // Misses are not cached (a null load stores nothing), so a product created elsewhere is visible right away
+        return Optional.ofNullable(cache.get(productId, id -> productRepository.findById(id).orElse(null)));
+    }
+
+    /**
+     * Cache hits first, then one $in query for all misses. Ids that do not exist are absent from the result.
+     * Batch misses are not cached: a bulk load is not atomic with invalidate, so caching it could keep
+     * a product that was written while the query ran.
+     */
+    public Map<String, Product> findAllById(Collection<String> productIds) {
+        Map<String, Product> found = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String productId : productIds) {
+            Product cached = cache.getIfPresent(productId);
+            if (cached != null) {
+                found.put(productId, cached);
+            } else {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).forEach(p -> found.put(p.getId(), p));
+        }
+        return found;
+    }
+
+    public Product getIfPresent(String productId) {
+        return cache.getIfPresent(productId);
+    }
+
+    public void invalidate(String productId) {
+        cache.invalidate(productId);
+    }
+
+    public CacheStatsResponse stats() {
+        return CacheStatsResponse.fromCache(cache);
+    }
+}
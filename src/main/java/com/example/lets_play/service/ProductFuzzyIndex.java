@@ -0,0 +1,292 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant title lookup. Distinct title terms live in a BK-tree keyed by Levenshtein
+ * distance, so a query only visits the part of the dictionary that can be within range
+ * instead of comparing against every title.
+ */
+@Component
+public class ProductFuzzyIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private State state = new State();
+
+    // Writes made while a rebuild is reading the catalog, replayed onto the new state before the swap
+    private List<Write> pendingWrites;
+
+    /**
+     * Replaces the dictionary with the given products. Rebuilds must not run concurrently with each other.
+     */
+    public void rebuild(Iterator<Product> products) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        boolean built = false;
+        try {
+            while (products.hasNext()) {
+                fresh.add(products.next());
+            }
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    for (Write write : pendingWrites) {
+                        write.applyTo(fresh);
+                    }
+                    state = fresh;
+                    ready = true;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(Product product) {
+        apply(new Write(product.getId(), product));
+    }
+
+    public void remove(String productId) {
+        apply(new Write(productId, null));
+    }
+
+    private void apply(Write write) {
+        lock.writeLock().lock();
+        try {
+            write.applyTo(state);
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns ids of products whose title terms match the query terms within {@code maxDistance} edits,
+     * best matches first. Short terms get a tighter budget so "tv" does not match everything.
+     */
+    public List<String> search(String query, int maxDistance, int limit) {
+        Set<String> terms = new LinkedHashSet<>(ProductSearchIndex.tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                int budget = Math.min(maxDistance, allowedDistance(term));
+
+                // Best match per product for this query term
+                Map<String, Double> termScores = new HashMap<>();
+                state.terms.search(term, budget, (match, distance) -> {
+                    double score = 1.0 / (1 + distance);
+                    for (String id : state.idsByTerm.getOrDefault(match, Set.of())) {
+                        termScores.merge(id, score, Math::max);
+                    }
+                });
+                termScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+            }
+
+            List<Map.Entry<String, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<String, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<String> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int allowedDistance(String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    static int levenshtein(String a, String b) {
+        return levenshtein(a, b, new int[2][]);
+    }
+
+    /**
+     * Two-row Levenshtein distance. {@code rows} is scratch space reused across calls
+     * so a tree walk does not allocate per visited node.
+     */
+    static int levenshtein(String a, String b, int[][] rows) {
+        if (a.length() < b.length()) {
+            String tmp = a;
+            a = b;
+            b = tmp;
+        }
+
+        int width = b.length() + 1;
+        if (rows[0] == null || rows[0].length < width) {
+            rows[0] = new int[Math.max(width, 32)];
+            rows[1] = new int[Math.max(width, 32)];
+        }
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        for (int j = 0; j < width; j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j < width; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] tmp = previous;
+            previous = current;
+            current = tmp;
+        }
+        return previous[b.length()];
+    }
+
+    // A put (product set) or a remove (product null), replayable onto any state
+    private record Write(String productId, Product product) {
+        void applyTo(State target) {
+            target.remove(productId);
+            if (product != null) {
+                target.add(product);
+            }
+        }
+    }
+
+    interface MatchConsumer {
+        void accept(String term, int distance);
+    }
+
+    /**
+     * BK-tree over distinct terms. Children are indexed by their distance to the parent,
+     * so a search within k of q only descends into children at d(q, node) +/- k.
+     * Terms are never removed; terms without products are simply skipped until the next rebuild.
+     */
+    static final class BkTree {
+        private static final class Node {
+            final String term;
+            Node[] children = new Node[0];
+
+            Node(String term) {
+                this.term = term;
+            }
+        }
+
+        private Node root;
+
+        void add(String term) {
+            if (root == null) {
+                root = new Node(term);
+                return;
+            }
+
+            Node node = root;
+            while (true) {
+                int d = levenshtein(term, node.term);
+                if (d == 0) {
+                    return;
+                }
+                if (d >= node.children.length) {
+                    node.children = Arrays.copyOf(node.children, d + 1);
+                }
+                if (node.children[d] == null) {
+                    node.children[d] = new Node(term);
+                    return;
+                }
+                node = node.children[d];
+            }
+        }
+
+        void search(String query, int maxDistance, MatchConsumer consumer) {
+            if (root == null) {
+                return;
+            }
+
+            int[][] rows = new int[2][];
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(root);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                int d = levenshtein(query, node.term, rows);
+                if (d <= maxDistance) {
+                    consumer.accept(node.term, d);
+                }
+
+                int from = Math.max(1, d - maxDistance);
+                int to = Math.min(node.children.length - 1, d + maxDistance);
+                for (int i = from; i <= to; i++) {
+                    if (node.children[i] != null) {
+                        pending.push(node.children[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class State {
+        private final BkTree terms = new BkTree();
+        private final Map<String, Set<String>> idsByTerm = new HashMap<>();
+        private final Map<String, String> titlesById = new HashMap<>();
+
+        void add(Product product) {
+            titlesById.put(product.getId(), product.getTitle());
+            for (String term : ProductSearchIndex.tokenize(product.getTitle())) {
+                Set<String> ids = idsByTerm.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    idsByTerm.put(term, ids);
+                    terms.add(term);
+                }
+                ids.add(product.getId());
+            }
+        }
+
+        void remove(String productId) {
+            String title = titlesById.remove(productId);
+            if (title == null) {
+                return;
+            }
+            for (String term : ProductSearchIndex.tokenize(title)) {
+                Set<String> ids = idsByTerm.get(term);
+                if (ids != null) {
+                    ids.remove(productId);
+                }
+            }
+        }
+    }
+}
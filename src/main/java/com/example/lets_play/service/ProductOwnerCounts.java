@@ -0,0 +1,41 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.repository.ProductRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Cached product count per owner. A miss is a count on the (userId, _id) index;
+ * product writes invalidate the owner's entry, and the TTL bounds staleness
+ * for writes made through other instances.
+ */
+@Component
+public class ProductOwnerCounts {
+
+    private final ProductRepository productRepository;
+    private final Cache<String, Long> cache;
+
+    public ProductOwnerCounts(ProductRepository productRepository,
+            @Value("${app.products.owner-counts.max-size:10000}") long maxSize,
+            @Value("${app.products.owner-counts.ttl-seconds:300}") long ttlSeconds) {
+        this.productRepository = productRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public long get(String userId) {
+        return cache.get(userId, productRepository::countByUserId);
+    }
+
+    public void invalidate(String userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+}
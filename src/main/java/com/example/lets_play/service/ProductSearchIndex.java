@@ -0,0 +1,409 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product titles and descriptions with BM25 ranking.
+ * Posting lists are primitive int arrays of (docId, termFrequency) pairs kept sorted by docId,
+ * so a query is a document-at-a-time merge feeding a bounded top-K min-heap.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Title terms count this many times towards term frequency
+    private static final int TITLE_BOOST = 2;
+
+    // Compact once freed doc slots outnumber live documents by this much
+    private static final int COMPACTION_SLACK = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private State state = new State();
+
+    // Writes made while a rebuild is reading the catalog, replayed onto the new state before the swap
+    private List<Write> pendingWrites;
+
+    /**
+     * Replaces the whole index with the given products. The new index is built
+     * without holding the lock, so searches keep being served during a rebuild.
+     * Rebuilds must not run concurrently with each other.
+     */
+    public void rebuild(Iterator<Product> products) {
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        boolean built = false;
+        try {
+            while (products.hasNext()) {
+                fresh.add(products.next());
+            }
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    for (Write write : pendingWrites) {
+                        write.applyTo(fresh);
+                    }
+                    state = fresh;
+                    ready = true;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a product, replacing any previously indexed version of it
+     */
+    public void put(Product product) {
+        apply(new Write(product.getId(), product));
+    }
+
+    public void remove(String productId) {
+        apply(new Write(productId, null));
+    }
+
+    private void apply(Write write) {
+        lock.writeLock().lock();
+        try {
+            write.applyTo(state);
+            compactIfNeeded();
+            if (pendingWrites != null) {
+                pendingWrites.add(write);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products ranked by BM25 score for the query terms
+     */
+    public List<Product> search(String query, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        if (terms.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            return state.search(terms, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (state.docs.size() > 2 * state.liveDocs + COMPACTION_SLACK) {
+            State compacted = new State();
+            for (Product product : state.docs) {
+                if (product != null) {
+                    compacted.add(product);
+                }
+            }
+            state = compacted;
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * A put (product set) or a remove (product null), replayable onto any state
+     */
+    private record Write(String productId, Product product) {
+        void applyTo(State target) {
+            target.remove(productId);
+            if (product != null) {
+                target.add(product);
+            }
+        }
+    }
+
+    /**
+     * Growable sorted list of (docId, termFrequency) pairs
+     */
+    private static final class Postings {
+        private int[] data = new int[4];
+        private int size; // number of ints used, two per posting
+
+        int docCount() {
+            return size / 2;
+        }
+
+        void append(int docId, int tf) {
+            if (size + 2 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[size++] = docId;
+            data[size++] = tf;
+        }
+
+        void remove(int docId) {
+            int lo = 0;
+            int hi = docCount() - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int midDoc = data[mid * 2];
+                if (midDoc < docId) {
+                    lo = mid + 1;
+                } else if (midDoc > docId) {
+                    hi = mid - 1;
+                } else {
+                    System.arraycopy(data, mid * 2 + 2, data, mid * 2, size - mid * 2 - 2);
+                    size -= 2;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed-capacity min-heap keeping the K best (score, docId) pairs
+     */
+    private static final class TopK {
+        private final float[] scores;
+        private final int[] docs;
+        private int size;
+
+        TopK(int capacity) {
+            scores = new float[capacity];
+            docs = new int[capacity];
+        }
+
+        void offer(float score, int docId) {
+            if (size < scores.length) {
+                scores[size] = score;
+                docs[size] = docId;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                scores[0] = score;
+                docs[0] = docId;
+                siftDown(0);
+            }
+        }
+
+        // Drains the heap, best first
+        int[] drainDescending() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = docs[0];
+                size--;
+                scores[0] = scores[size];
+                docs[0] = docs[size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left;
+                if (left + 1 < size && scores[left + 1] < scores[left]) {
+                    smallest = left + 1;
+                }
+                if (scores[i] <= scores[smallest]) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            float s = scores[a];
+            scores[a] = scores[b];
+            scores[b] = s;
+            int d = docs[a];
+            docs[a] = docs[b];
+            docs[b] = d;
+        }
+    }
+
+    /**
+     * One generation of the index. Doc ids are assigned in increasing order and never reused,
+     * which keeps every posting list sorted by simply appending.
+     */
+    private static final class State {
+        private final Map<String, Postings> postings = new HashMap<>();
+        private final Map<String, Integer> docIds = new HashMap<>();
+        private final List<Product> docs = new ArrayList<>();
+        private int[] docLengths = new int[16];
+        private long totalLength;
+        private int liveDocs;
+
+        void add(Product product) {
+            Map<String, Integer> tf = new HashMap<>();
+            for (String term : tokenize(product.getTitle())) {
+                tf.merge(term, TITLE_BOOST, Integer::sum);
+            }
+            for (String term : tokenize(product.getDescription())) {
+                tf.merge(term, 1, Integer::sum);
+            }
+
+            int docId = docs.size();
+            docs.add(product);
+            docIds.put(product.getId(), docId);
+
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : tf.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new Postings()).append(docId, entry.getValue());
+                length += entry.getValue();
+            }
+
+            if (docId >= docLengths.length) {
+                docLengths = Arrays.copyOf(docLengths, Math.max(docLengths.length * 2, docId + 1));
+            }
+            docLengths[docId] = length;
+            totalLength += length;
+            liveDocs++;
+        }
+
+        void remove(String productId) {
+            Integer docId = docIds.remove(productId);
+            if (docId == null) {
+                return;
+            }
+
+            Product product = docs.get(docId);
+            Set<String> terms = new LinkedHashSet<>(tokenize(product.getTitle()));
+            terms.addAll(tokenize(product.getDescription()));
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    list.remove(docId);
+                    if (list.docCount() == 0) {
+                        postings.remove(term);
+                    }
+                }
+            }
+
+            docs.set(docId, null);
+            totalLength -= docLengths[docId];
+            liveDocs--;
+        }
+
+        List<Product> search(Set<String> terms, int limit) {
+            List<Postings> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            if (lists.isEmpty()) {
+                return new ArrayList<>();
+            }
+
+            int n = lists.size();
+            float[] idf = new float[n];
+            int[] cursor = new int[n];
+            for (int t = 0; t < n; t++) {
+                int df = lists.get(t).docCount();
+                idf[t] = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+            }
+
+            float avgLength = liveDocs == 0 ? 1f : (float) totalLength / liveDocs;
+            TopK top = new TopK(Math.min(limit, liveDocs));
+
+            // Document-at-a-time merge over the sorted posting lists
+            while (true) {
+                int docId = Integer.MAX_VALUE;
+                for (int t = 0; t < n; t++) {
+                    Postings list = lists.get(t);
+                    if (cursor[t] < list.size && list.data[cursor[t]] < docId) {
+                        docId = list.data[cursor[t]];
+                    }
+                }
+                if (docId == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                float norm = K1 * (1 - B + B * docLengths[docId] / avgLength);
+                float score = 0f;
+                for (int t = 0; t < n; t++) {
+                    Postings list = lists.get(t);
+                    if (cursor[t] < list.size && list.data[cursor[t]] == docId) {
+                        int tf = list.data[cursor[t] + 1];
+                        score += idf[t] * tf * (K1 + 1) / (tf + norm);
+                        cursor[t] += 2;
+                    }
+                }
+                top.offer(score, docId);
+            }
+
+            int[] ranked = top.drainDescending();
+            List<Product> results = new ArrayList<>(ranked.length);
+            for (int docId : ranked) {
+                results.add(docs.get(docId));
+            }
+            return results;
+        }
+    }
+}
@@ -1,73 +1,762 @@
 package com.example.lets_play.service;
 
+import com.example.lets_play.dto.BulkItemResult;
+import com.example.lets_play.dto.BulkProductUpdateRequest;
+import com.example.lets_play.dto.BulkResponse;
+import com.example.lets_play.dto.CacheStatsResponse;
+import com.example.lets_play.dto.ProductBatchItem;
+import com.example.lets_play.dto.ProductCursor;
+import com.example.lets_play.dto.ProductFields;
+import com.example.lets_play.dto.ProductFilter;
+import com.example.lets_play.dto.ProductPage;
+import com.example.lets_play.dto.ProductPatchRequest;
+import com.example.lets_play.dto.ProductRequest;
+import com.example.lets_play.dto.ProductSort;
+import com.example.lets_play.dto.ProductSuggestion;
+import com.example.lets_play.model.Counter;
 import com.example.lets_play.model.Product;
-import com.example.lets_play.model.User;
+import com.example.lets_play.repository.CounterRepository;
 import com.example.lets_play.repository.ProductRepository;
-import com.example.lets_play.repository.UserRepository;
 import com.example.lets_play.exception.ResourceNotFoundException;
+import com.example.lets_play.exception.ValidationException;
+import com.example.lets_play.security.AuthenticatedUser;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+
+    // Counter bumped by every product write, shared by all instances
+    private static final String CATALOG_VERSION = "products.version";
+
     @Autowired
     private ProductRepository productRepository;
+
+    @Autowired
+    private CounterRepository counterRepository;
     
     @Autowired
-    private UserRepository userRepository;
+    private UserCache userCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductOwnerCounts ownerCounts;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Value("${app.products.suggest.max-size:20}")
+    private int maxSuggestions;
+
+    @Autowired
+    private ProductFuzzyIndex fuzzyIndex;
+
+    @Value("${app.products.fuzzy.max-distance:2}")
+    private int fuzzyMaxDistance;
+
+    @Value("${app.products.fuzzy.max-candidates:2000}")
+    private int fuzzyMaxCandidates;
+
+    /**
+     * How /search is answered: TEXT uses the Mongo text index (relevance-ranked, stemmed),
+     * INDEX uses the in-process BM25 index without a database round trip,
+     * REGEX keeps the legacy unanchored case-insensitive match on the name field.
+     */
+    public enum SearchMode { REGEX, TEXT, INDEX }
+
+    @Value("${app.products.search-mode:regex}")
+    private SearchMode searchMode;
+
+    // Bumped after every completed rebuild of the in-memory indexes
+    private volatile long indexGeneration;
+
+    // Picks up writes made through other instances
+    @Value("${app.products.index-rebuild-interval-minutes:15}")
+    private long indexRebuildIntervalMinutes;
+
+    private final ScheduledExecutorService indexScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "product-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    private ValidationService validationService;
+
+    @Value("${app.products.bulk.max-size:1000}")
+    private int maxBulkSize;
+
+    @Value("${app.products.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${app.products.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.products.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.products.export-flush-size:500}")
+    private int exportFlushSize;
 
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public ProductPage getProducts(ProductFilter filter, String cursor, Integer limit, ProductFields fields) {
+        return searchProducts(null, filter, cursor, limit, fields);
     }
 
-    public List<Product> searchProducts(String query) {
-        return productRepository.findByTitleContainingIgnoreCase(query);
+    public ProductPage searchProducts(String query, ProductFilter filter, String cursor, Integer limit,
+            ProductFields fields) {
+        Collection<String> projection = projectionFor(fields, filter);
+        int pageSize = resolvePageSize(limit);
+
+        // Relevance order has no stable range key, so ranked search returns the top hits only.
+        // The in-memory index cannot narrow by filters, so filtered searches go to Mongo.
+        if (query != null && searchMode == SearchMode.INDEX && searchIndex.isReady()
+                && !filter.hasCriteria() && filter.getSort() == null) {
+            return new ProductPage(searchIndex.search(query, pageSize), null);
+        }
+
+        ProductCursor after = ProductCursor.decode(cursor);
+        if (query != null && searchMode != SearchMode.REGEX) {
+            if (filter.getSort() == null) {
+                return new ProductPage(productRepository.findByText(query, filter, null, pageSize, projection), null);
+            }
+            return toPage(productRepository.findByText(query, filter, after, pageSize + 1, projection),
+                    pageSize, filter.getSort());
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Product> rows = productRepository.findPage(query, filter, after, pageSize + 1, projection);
+        return toPage(rows, pageSize, filter.getSortOrDefault());
+    }
+
+    /**
+     * One owner's products, paginated on the (userId, _id) index, with the owner's cached product count
+     */
+    public ProductPage getProductsByOwner(String ownerId, ProductSort sort, String cursor, Integer limit,
+            ProductFields fields) {
+        ProductFilter filter = new ProductFilter(null, null, ownerId, null, sort);
+        ProductPage page = getProducts(filter, cursor, limit, fields);
+        page.setTotal(ownerCounts.get(ownerId));
+        return page;
+    }
+
+    /**
+     * Typo-tolerant title search. Matching happens in memory; the hits are then loaded from Mongo
+     * with the filter applied, taking further candidates in rank order until the page is full
+     * (at most app.products.fuzzy.max-candidates). Unpaginated: this returns the best {@code limit}
+     * matches by relevance, reordered by the sort when one is given, and never a cursor.
+     */
+    public ProductPage fuzzySearchProducts(String query, ProductFilter filter, Integer limit, ProductFields fields) {
+        int pageSize = resolvePageSize(limit);
+        if (!fuzzyIndex.isReady()) {
+            return searchProducts(query, filter, null, limit, fields);
+        }
+
+        Collection<String> projection = projectionFor(fields, filter);
+        List<Product> page = new ArrayList<>(pageSize);
+        int loaded = 0;
+        int candidates = filter.hasCriteria() ? pageSize * 4 : pageSize;
+        while (true) {
+            List<String> ids = fuzzyIndex.search(query, fuzzyMaxDistance, candidates);
+            if (ids.size() > loaded) {
+                List<String> batch = ids.subList(loaded, ids.size());
+                Map<String, Product> byId = new HashMap<>();
+                productRepository.findAllById(batch, filter, projection).forEach(p -> byId.put(p.getId(), p));
+                for (String id : batch) {
+                    Product product = byId.get(id);
+                    if (product != null && page.size() < pageSize) {
+                        page.add(product);
+                    }
+                }
+                loaded = ids.size();
+            }
+            // Full page, every match seen, or candidate budget spent
+            if (page.size() >= pageSize || ids.size() < candidates || candidates >= fuzzyMaxCandidates) {
+                break;
+            }
+            candidates = Math.min(candidates * 4, fuzzyMaxCandidates);
+        }
+
+        if (filter.getSort() != null) {
+            page.sort(filter.getSort().comparator());
+        }
+        return new ProductPage(page, null);
+    }
+
+    public List<ProductSuggestion> suggestProducts(String prefix, Integer limit) {
+        int size = limit == null ? 10 : Math.min(Math.max(limit, 1), maxSuggestions);
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInMemoryIndexes() {
+        rebuildInMemoryIndexes();
+        indexScheduler.scheduleWithFixedDelay(this::rebuildInMemoryIndexesSafely,
+                indexRebuildIntervalMinutes, indexRebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        indexScheduler.shutdownNow();
+    }
+
+    // A failed run must not cancel the schedule; the indexes keep their current state until the next one
+    private void rebuildInMemoryIndexesSafely() {
+        try {
+            rebuildInMemoryIndexes();
+        } catch (RuntimeException e) {
+            log.warn("Product index rebuild failed: {}", e.toString());
+        }
+    }
+
+    private void rebuildInMemoryIndexes() {
+        try (Stream<Product> products = productRepository.streamTitlesBy()) {
+            suggestIndex.rebuild(products.iterator());
+        }
+        try (Stream<Product> products = productRepository.streamTitlesBy()) {
+            fuzzyIndex.rebuild(products.iterator());
+        }
+        if (searchMode == SearchMode.INDEX) {
+            try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+                searchIndex.rebuild(products.iterator());
+            }
+        }
+        indexGeneration++;
+    }
+
+    /**
+     * Writes every product as newline-delimited JSON, straight from a Mongo cursor.
+     * Memory stays flat regardless of catalog size; output is flushed every exportFlushSize rows.
+     */
+    public void exportProducts(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Product> it = products.iterator();
+            int written = 0;
+            while (it.hasNext()) {
+                generator.writeObject(it.next());
+                generator.writeRaw('\n');
+                if (++written % exportFlushSize == 0) {
+                    generator.flush();
+                }
+            }
+        }
+
+        generator.flush();
     }
 
     public Product getProductById(String productId) {
-        return productRepository.findById(productId)
+        return productCache.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
     }
 
+    /**
+     * Loads only the requested fields, plus owner and price which detail authorization reads,
+     * and the version the ETag is built from (so cached and projected reads carry the same tag)
+     */
+    public Product getProductById(String productId, ProductFields fields) {
+        if (fields == null) {
+            return getProductById(productId);
+        }
+        Product cached = productCache.getIfPresent(productId);
+        if (cached != null) {
+            return cached;
+        }
+        Set<String> projection = new LinkedHashSet<>(fields.getMongoFields());
+        projection.add("userId");
+        projection.add("price");
+        projection.add("version");
+        return productRepository.findProjectedById(productId, projection)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    }
+
+    /**
+     * Multi-get in request order. Ids are checked in one pass, cached products are served from memory
+     * and the rest come from a single $in query. Each product is subject to the same visibility rule
+     * as the detail endpoint.
+     */
+    public List<ProductBatchItem> getProductsByIds(List<String> productIds, AuthenticatedUser user) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new ValidationException("Batch request must contain at least one id");
+        }
+        if (productIds.size() > maxBatchSize) {
+            throw new ValidationException("Batch request cannot contain more than " + maxBatchSize + " ids");
+        }
+
+        Set<String> valid = new LinkedHashSet<>();
+        for (String id : productIds) {
+            if (id != null && ObjectId.isValid(id)) {
+                valid.add(id);
+            }
+        }
+        Map<String, Product> found = valid.isEmpty() ? Map.of() : productCache.findAllById(valid);
+
+        List<ProductBatchItem> items = new ArrayList<>(productIds.size());
+        for (String id : productIds) {
+            Product product = found.get(id);
+            if (!valid.contains(id)) {
+                items.add(ProductBatchItem.failed(id, 400, "Invalid Product ID format"));
+            } else if (product == null) {
+                items.add(ProductBatchItem.failed(id, 404, "Product not found"));
+            } else if (!isVisibleTo(product, user)) {
+                items.add(ProductBatchItem.failed(id, 403, "Access denied"));
+            } else {
+                items.add(ProductBatchItem.found(product));
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Same rule as the detail endpoint: admins and owners see everything, others only products under 100
+     */
+    public boolean isVisibleTo(Product product, AuthenticatedUser user) {
+        if (user != null && (user.isAdmin() || isOwnedBy(product, user))) {
+            return true;
+        }
+        return product.getPrice() != null && product.getPrice() < 100;
+    }
+
+    /**
+     * Cheap catalog-wide version: a single counter document read instead of a query
+     */
+    public long getCatalogVersion() {
+        return counterRepository.findById(CATALOG_VERSION).map(Counter::getValue).orElse(0L);
+    }
+
+    /**
+     * Local rebuild generation of the in-memory indexes. They only see other instances' writes
+     * after a rebuild, so responses served from them must not be validated by the catalog version alone.
+     */
+    public long getIndexGeneration() {
+        return indexGeneration;
+    }
+
+    // Whether ranked search may be answered from the in-memory index
+    public boolean isIndexSearch() {
+        return searchMode == SearchMode.INDEX;
+    }
+
     public Product createProduct(String name, String desc, Double price, String userId) {
         Product p = new Product(name, desc, price, userId);
-        return productRepository.save(p);
+        Product saved = productRepository.save(p);
+        onProductSaved(saved);
+        ownerCounts.invalidate(userId);
+        bumpCatalogVersion();
+        return saved;
     }
 
-    public void deleteProduct(String productId) {
-        productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        productRepository.deleteById(productId);
+    /**
+     * Deletes in one round trip. With {@code expectedVersion} the delete only applies
+     * to that version of the product, otherwise 409.
+     */
+    public void deleteProduct(String productId, Long expectedVersion) {
+        Product deleted = productRepository.deleteIfVersion(productId, expectedVersion);
+        if (deleted == null) {
+            throw missingOrConflict(productId);
+        }
+        onProductDeleted(productId);
+        ownerCounts.invalidate(deleted.getUserId());
+        bumpCatalogVersion();
     }
 
-    public Product updateProduct(String productId, String name, String desc, Double price, String userId) {
-        return productRepository.findById(productId).map(p -> {
-            p.setTitle(name);
-            p.setDescription(desc);
-            p.setPrice(price);
-            p.setUserId(userId);
-            return productRepository.save(p);
-        }).orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+    /**
+     * Deletes every product owned by the user, keeping in-memory structures in sync
+     */
+    public long deleteProductsByOwner(String userId) {
+        List<Product> owned = productRepository.findByUserId(userId);
+        long deleted = productRepository.deleteByUserId(userId);
+        owned.forEach(p -> onProductDeleted(p.getId()));
+        ownerCounts.invalidate(userId);
+        if (deleted > 0) {
+            bumpCatalogVersion();
+        }
+        return deleted;
     }
-    
-    public boolean isProductOwner(String productId, String userEmail) {
-        Optional<Product> productOpt = productRepository.findById(productId);
-        if (!productOpt.isPresent()) {
-            return false;
+
+    /**
+     * Atomic findAndModify instead of read-then-save. With {@code expectedVersion}
+     * a concurrent edit makes this fail with 409 rather than being overwritten.
+     * The owner is left unchanged, so an admin editing a product does not take it over.
+     */
+    public Product updateProduct(String productId, String name, String desc, Double price, Long expectedVersion) {
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("name", name);
+        changes.put("description", desc);
+        changes.put("price", price);
+        return applyChanges(productId, changes, expectedVersion);
+    }
+
+    /**
+     * Writes only the fields present in the patch with a targeted $set
+     */
+    public Product patchProduct(String productId, ProductPatchRequest patch, Long expectedVersion) {
+        Map<String, Object> changes = new HashMap<>();
+        if (patch.getName() != null) {
+            changes.put("name", patch.getName());
+        }
+        if (patch.getDescription() != null) {
+            changes.put("description", patch.getDescription());
+        }
+        if (patch.getPrice() != null) {
+            changes.put("price", patch.getPrice());
+        }
+        return applyChanges(productId, changes, expectedVersion);
+    }
+
+    private Product applyChanges(String productId, Map<String, Object> changes, Long expectedVersion) {
+        Product updated = productRepository.updateIfVersion(productId, expectedVersion, changes);
+        if (updated == null) {
+            throw missingOrConflict(productId);
+        }
+        onProductSaved(updated);
+        bumpCatalogVersion();
+        return updated;
+    }
+
+    /**
+     * Validates every item, then inserts the valid ones in a single unordered bulk write
+     */
+    public BulkResponse createProducts(List<ProductRequest> requests, String userId) {
+        checkBulkSize(requests);
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<Product> batch = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            ProductRequest request = requests.get(i);
+            try {
+                validationService.validateBulkProductRequest(request);
+            } catch (ValidationException e) {
+                results[i] = BulkItemResult.failed(i, null, 400, e.getMessage());
+                continue;
+            }
+            // Ids are assigned up front so results and in-memory indexes can refer to them
+            Product product = new Product(request.getName(), request.getDescription(), request.getPrice(), userId);
+            product.setId(new ObjectId().toHexString());
+            product.setVersion(0L);
+            batch.add(product);
+            positions.add(i);
+        }
+
+        Map<Integer, String> failures = productRepository.bulkInsert(batch);
+        for (int b = 0; b < batch.size(); b++) {
+            Product product = batch.get(b);
+            int i = positions.get(b);
+            if (failures.containsKey(b)) {
+                results[i] = BulkItemResult.failed(i, product.getId(), 500, failures.get(b));
+            } else {
+                results[i] = new BulkItemResult(i, product.getId(), 201, null);
+                onProductSaved(product);
+            }
+        }
+        if (failures.size() < batch.size()) {
+            ownerCounts.invalidate(userId);
+            bumpCatalogVersion();
+        }
+        return new BulkResponse(List.of(results));
+    }
+
+    /**
+     * Loads all targeted products in one query, checks ownership in memory,
+     * then applies the permitted updates in a single unordered bulk write.
+     * Each write only applies to the version that was loaded, so a product deleted or edited
+     * in between is reported 404 or 409 instead of being overwritten or re-indexed.
+     * The owner of each product is left unchanged.
+     */
+    public BulkResponse updateProducts(List<BulkProductUpdateRequest> requests, String userId, boolean admin) {
+        checkBulkSize(requests);
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            BulkProductUpdateRequest request = requests.get(i);
+            try {
+                validationService.validateBulkProductRequest(request);
+                validationService.validateObjectId(request.getId(), "Product");
+            } catch (ValidationException e) {
+                results[i] = BulkItemResult.failed(i, request == null ? null : request.getId(), 400, e.getMessage());
+                continue;
+            }
+            ids.add(request.getId());
+        }
+
+        Map<String, Product> existing = loadProducts(ids);
+        List<Product> batch = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            BulkProductUpdateRequest request = requests.get(i);
+            Product current = existing.get(request.getId());
+            BulkItemResult denied = checkAccess(i, request.getId(), current, userId, admin);
+            if (denied != null) {
+                results[i] = denied;
+                continue;
+            }
+            // Carries the loaded version, which the write is conditioned on
+            Product updated = new Product(request.getName(), request.getDescription(), request.getPrice(), current.getUserId());
+            updated.setId(current.getId());
+            updated.setVersion(current.getVersion());
+            batch.add(updated);
+            positions.add(i);
+        }
+
+        ProductRepository.BulkUpdateOutcome outcome = productRepository.bulkUpdate(batch);
+        Map<Integer, String> failures = outcome.failures();
+
+        // Some writes matched nothing: read back to tell which, off the common path
+        Map<String, Product> after = null;
+        if (outcome.matched() + failures.size() < batch.size()) {
+            List<String> written = new ArrayList<>();
+            batch.forEach(p -> written.add(p.getId()));
+            after = loadProducts(written);
+        }
+
+        int saved = 0;
+        for (int b = 0; b < batch.size(); b++) {
+            Product product = batch.get(b);
+            int i = positions.get(b);
+            product.setVersion(product.getVersion() == null ? 1L : product.getVersion() + 1);
+            if (failures.containsKey(b)) {
+                results[i] = BulkItemResult.failed(i, product.getId(), 500, failures.get(b));
+            } else if (after != null && !after.containsKey(product.getId())) {
+                results[i] = BulkItemResult.failed(i, product.getId(), 404, "Product not found");
+            } else if (after != null && !isWritten(product, after.get(product.getId()))) {
+                results[i] = BulkItemResult.failed(i, product.getId(), 409, "Product was modified by another request");
+            } else {
+                results[i] = BulkItemResult.ok(i, product.getId());
+                onProductSaved(product);
+                saved++;
+            }
+        }
+        if (saved > 0) {
+            bumpCatalogVersion();
+        }
+        return new BulkResponse(List.of(results));
+    }
+
+    // The stored product is exactly what this write produced
+    private static boolean isWritten(Product expected, Product stored) {
+        return Objects.equals(expected.getVersion(), stored.getVersion())
+                && Objects.equals(expected.getTitle(), stored.getTitle())
+                && Objects.equals(expected.getDescription(), stored.getDescription())
+                && Objects.equals(expected.getPrice(), stored.getPrice());
+    }
+
+    public BulkResponse deleteProducts(List<String> productIds, String userId, boolean admin) {
+        checkBulkSize(productIds);
+        BulkItemResult[] results = new BulkItemResult[productIds.size()];
+        List<String> ids = new ArrayList<>();
+
+        for (int i = 0; i < productIds.size(); i++) {
+            try {
+                validationService.validateObjectId(productIds.get(i), "Product");
+            } catch (ValidationException e) {
+                results[i] = BulkItemResult.failed(i, productIds.get(i), 400, e.getMessage());
+                continue;
+            }
+            ids.add(productIds.get(i));
+        }
+
+        Map<String, Product> existing = loadProducts(ids);
+        List<String> batch = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            String id = productIds.get(i);
+            BulkItemResult denied = checkAccess(i, id, existing.get(id), userId, admin);
+            if (denied != null) {
+                results[i] = denied;
+                continue;
+            }
+            batch.add(id);
+            positions.add(i);
+        }
+
+        Map<Integer, String> failures = productRepository.bulkDelete(batch);
+        for (int b = 0; b < batch.size(); b++) {
+            String id = batch.get(b);
+            int i = positions.get(b);
+            if (failures.containsKey(b)) {
+                results[i] = BulkItemResult.failed(i, id, 500, failures.get(b));
+            } else {
+                results[i] = BulkItemResult.ok(i, id);
+                onProductDeleted(id);
+                ownerCounts.invalidate(existing.get(id).getUserId());
+            }
         }
-        
-        Optional<User> userOpt = userRepository.findByEmail(userEmail);
-        if (!userOpt.isPresent()) {
+        if (failures.size() < batch.size()) {
+            bumpCatalogVersion();
+        }
+        return new BulkResponse(List.of(results));
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return productCache.stats();
+    }
+
+    /**
+     * Ownership check for @PreAuthorize: one existence query on the (userId, _id) index,
+     * using the user id carried in the token instead of loading the product and the user
+     */
+    public boolean isProductOwner(String productId, Object principal) {
+        if (!(principal instanceof AuthenticatedUser user)) {
             return false;
         }
-        
-        Product product = productOpt.get();
-        User user = userOpt.get();
-        
-        return product.getUserId().equals(user.getId());
+
+        String userId = user.getId();
+        if (userId == null) {
+            // Token issued before the user id claim existed
+            userId = userCache.findByEmail(user.getEmail()).map(u -> u.getId()).orElse(null);
+            if (userId == null) {
+                return false;
+            }
+        }
+        return productRepository.existsByIdAndUserId(productId, userId);
+    }
+
+    /**
+     * Ownership check for @PostAuthorize on an already loaded product
+     */
+    public boolean isOwnedBy(Product product, Object principal) {
+        return principal instanceof AuthenticatedUser user
+                && user.getId() != null
+                && user.getId().equals(product.getUserId());
+    }
+
+    // Only reached when a conditional write matched nothing, so the extra lookup is off the hot path
+    private RuntimeException missingOrConflict(String productId) {
+        if (!productRepository.existsById(productId)) {
+            return new ResourceNotFoundException("Product not found");
+        }
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Product was modified by another request");
+    }
+
+    private void bumpCatalogVersion() {
+        counterRepository.increment(CATALOG_VERSION, 1);
+    }
+
+    private void onProductSaved(Product product) {
+        productCache.invalidate(product.getId());
+        suggestIndex.put(product);
+        fuzzyIndex.put(product);
+        if (searchMode == SearchMode.INDEX) {
+            searchIndex.put(product);
+        }
+    }
+
+    private void onProductDeleted(String productId) {
+        productCache.invalidate(productId);
+        suggestIndex.remove(productId);
+        fuzzyIndex.remove(productId);
+        if (searchMode == SearchMode.INDEX) {
+            searchIndex.remove(productId);
+        }
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new ValidationException("Bulk request must contain at least one item");
+        }
+        if (items.size() > maxBulkSize) {
+            throw new ValidationException("Bulk request cannot contain more than " + maxBulkSize + " items");
+        }
+    }
+
+    private Map<String, Product> loadProducts(List<String> ids) {
+        Map<String, Product> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            productRepository.findAllById(ids).forEach(p -> byId.put(p.getId(), p));
+        }
+        return byId;
+    }
+
+    private BulkItemResult checkAccess(int index, String id, Product product, String userId, boolean admin) {
+        if (product == null) {
+            return BulkItemResult.failed(index, id, 404, "Product not found");
+        }
+        if (!admin && !product.getUserId().equals(userId)) {
+            return BulkItemResult.failed(index, id, 403, "Not the owner of this product");
+        }
+        return null;
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1) {
+            throw new ValidationException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    // Price and name sorts need that field of the last row for the cursor, even when it was not asked for
+    private Collection<String> projectionFor(ProductFields fields, ProductFilter filter) {
+        if (fields == null) {
+            return null;
+        }
+        String sortField = filter.getSortOrDefault().sortField();
+        if (sortField == null) {
+            return fields.getMongoFields();
+        }
+        Set<String> projection = new LinkedHashSet<>(fields.getMongoFields());
+        projection.add(sortField);
+        return projection;
+    }
+
+    private ProductPage toPage(List<Product> rows, int pageSize, ProductSort sort) {
+        if (rows.size() <= pageSize) {
+            return new ProductPage(rows, null);
+        }
+
+        List<Product> items = rows.subList(0, pageSize);
+        Product last = items.get(pageSize - 1);
+        return new ProductPage(items, new ProductCursor(sort.cursorKey(last), last.getId()).encode());
     }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.dto.ProductSuggestion;
+import com.example.lets_play.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory title dictionary for prefix autocomplete.
+ * Keys are "lowercased title + NUL + id", so a prefix lookup is a range scan
+ * over the skip list that stops after N entries. Reads never block writes.
+ */
+@Component
+public class ProductSuggestIndex {
+
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private volatile ConcurrentSkipListMap<String, ProductSuggestion> titles = new ConcurrentSkipListMap<>();
+    private volatile Map<String, String> keysById = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Writes made while a rebuild is reading the catalog (guarded by this), replayed before the swap
+    private List<Write> pendingWrites;
+
+    /**
+     * Replaces the dictionary with the given products, only id and title are read.
+     * Rebuilds must not run concurrently with each other.
+     */
+    public void rebuild(Iterator<Product> products) {
+        synchronized (this) {
+            pendingWrites = new ArrayList<>();
+        }
+
+        ConcurrentSkipListMap<String, ProductSuggestion> freshTitles = new ConcurrentSkipListMap<>();
+        Map<String, String> freshKeys = new ConcurrentHashMap<>();
+        boolean built = false;
+        try {
+            while (products.hasNext()) {
+                put(freshTitles, freshKeys, products.next());
+            }
+            built = true;
+        } finally {
+            synchronized (this) {
+                if (built) {
+                    for (Write write : pendingWrites) {
+                        write.applyTo(freshTitles, freshKeys);
+                    }
+                    titles = freshTitles;
+                    keysById = freshKeys;
+                    ready = true;
+                }
+                pendingWrites = null;
+            }
+        }
+    }
+
+    public void put(Product product) {
+        apply(new Write(product.getId(), product));
+    }
+
+    public void remove(String productId) {
+        apply(new Write(productId, null));
+    }
+
+    private synchronized void apply(Write write) {
+        write.applyTo(titles, keysById);
+        if (pendingWrites != null) {
+            pendingWrites.add(write);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns up to {@code limit} titles starting with the prefix, in alphabetical order
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        List<ProductSuggestion> results = new ArrayList<>(limit);
+        String from = normalize(prefix);
+        if (from.isEmpty()) {
+            return results;
+        }
+
+        ConcurrentNavigableMap<String, ProductSuggestion> range = titles.subMap(from, true, from + Character.MAX_VALUE, true);
+        for (ProductSuggestion suggestion : range.values()) {
+            if (results.size() >= limit) {
+                break;
+            }
+            results.add(suggestion);
+        }
+        return results;
+    }
+
+    private static void put(Map<String, ProductSuggestion> titles, Map<String, String> keysById, Product product) {
+        String key = key(product);
+        String previous = keysById.put(product.getId(), key);
+        if (previous != null && !previous.equals(key)) {
+            titles.remove(previous);
+        }
+        titles.put(key, new ProductSuggestion(product.getId(), product.getTitle()));
+    }
+
+    // A put (product set) or a remove (product null), replayable onto any dictionary
+    private record Write(String productId, Product product) {
+        void applyTo(Map<String, ProductSuggestion> titles, Map<String, String> keysById) {
+            if (product != null) {
+                put(titles, keysById, product);
+                return;
+            }
+            String previous = keysById.remove(productId);
+            if (previous != null) {
+                titles.remove(previous);
+            }
+        }
+    }
+
+    private static String key(Product product) {
+        return normalize(product.getTitle()) + ID_SEPARATOR + product.getId();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
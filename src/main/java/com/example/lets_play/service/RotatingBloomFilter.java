@@ -0,0 +1,192 @@
+package com.example.lets_play.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Time-partitioned Bloom filter over revoked token digests. Each generation holds the tokens
+ * expiring in one window, so a lookup probes only the generation for the token's own expiry,
+ * and whole generations are dropped once their window has passed instead of deleting bits.
+ * Lookups are a handful of bit probes with no allocation. Never gives false negatives.
+ */
+public class RotatingBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final long windowMillis;
+    private final int hashes;
+    private final int bitsMask;
+    private final AtomicReferenceArray<Generation> ring;
+
+    // Tokens expiring past the ring horizon are not filtered; until the last of them
+    // expires every lookup is answered "maybe" and goes to the exact store
+    private volatile long overflowUntil;
+
+    /**
+     * @param windowMillis       expiry range covered by one generation
+     * @param horizonMillis      longest token lifetime to expect
+     * @param expectedPerWindow  revocations per window the false-positive target is sized for
+     * @param falsePositiveRate  target false-positive rate per generation
+     */
+    public RotatingBloomFilter(long windowMillis, long horizonMillis, int expectedPerWindow, double falsePositiveRate) {
+        this.windowMillis = windowMillis;
+
+        // m = -n ln p / (ln 2)^2 rounded up to a power of two, k = m/n ln 2
+        long bits = (long) Math.ceil(-expectedPerWindow * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int size = Integer.highestOneBit((int) Math.min(Math.max(bits, 64), 1 << 30) - 1) << 1;
+        this.bitsMask = size - 1;
+        this.hashes = Math.max(1, (int) Math.round((double) size / expectedPerWindow * LN2));
+        this.ring = new AtomicReferenceArray<>((int) (horizonMillis / windowMillis) + 2);
+    }
+
+    public void put(String digest, long expiresAt, long now) {
+        long window = expiresAt / windowMillis;
+        if (window - now / windowMillis >= ring.length() - 1) {
+            overflowUntil = Math.max(overflowUntil, expiresAt);
+            return;
+        }
+
+        Generation generation = generationFor(window);
+        long h1 = hash(digest, 0);
+        long h2 = hash(digest, 10) | 1;
+        for (int i = 0; i < hashes; i++) {
+            generation.set((int) (h1 + i * h2) & bitsMask);
+        }
+        generation.insertions++;
+    }
+
+    /**
+     * False means definitely not added; true means possibly added
+     */
+    public boolean mightContain(String digest, long expiresAt, long now) {
+        if (overflowUntil > now) {
+            return true;
+        }
+
+        long window = expiresAt / windowMillis;
+        Generation generation = ring.get(slot(window));
+        if (generation == null || generation.window != window) {
+            return false;
+        }
+
+        long h1 = hash(digest, 0);
+        long h2 = hash(digest, 10) | 1;
+        for (int i = 0; i < hashes; i++) {
+            if (!generation.get((int) (h1 + i * h2) & bitsMask)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops generations whose whole window lies before {@code now}. Returns how many were dropped.
+     */
+    public int rotate(long now) {
+        int dropped = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Generation generation = ring.get(i);
+            if (generation != null && (generation.window + 1) * windowMillis <= now
+                    && ring.compareAndSet(i, generation, null)) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    public int generationCount() {
+        int count = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            if (ring.get(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long memoryBytes() {
+        return (long) generationCount() * ((bitsMask + 1L) / 8);
+    }
+
+    /**
+     * Expected false-positive rate of the fullest generation: (1 - e^(-kn/m))^k
+     */
+    public double estimatedFalsePositiveRate() {
+        long fullest = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Generation generation = ring.get(i);
+            if (generation != null) {
+                fullest = Math.max(fullest, generation.insertions);
+            }
+        }
+        return Math.pow(1 - Math.exp(-(double) hashes * fullest / (bitsMask + 1L)), hashes);
+    }
+
+    private Generation generationFor(long window) {
+        int slot = slot(window);
+        while (true) {
+            Generation current = ring.get(slot);
+            if (current != null && current.window == window) {
+                return current;
+            }
+            // A slot is reused only after its previous window has passed, since the ring spans the horizon
+            Generation fresh = new Generation(window, (bitsMask + 1) / 64);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long window) {
+        return (int) Math.floorMod(window, (long) ring.length());
+    }
+
+    /**
+     * 60 bits read straight from the base64url digest, which is already a uniform SHA-256.
+     * Reads ten characters starting at {@code offset}; no decoding buffer is allocated.
+     */
+    static long hash(String digest, int offset) {
+        long h = 0;
+        for (int i = offset; i < offset + 10 && i < digest.length(); i++) {
+            h = (h << 6) | sextet(digest.charAt(i));
+        }
+        return h;
+    }
+
+    private static int sextet(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        return c == '-' ? 62 : 63;
+    }
+
+    private static final class Generation {
+        final long window;
+        final AtomicLongArray words;
+        volatile long insertions; // approximate under concurrent puts; only feeds the estimate
+
+        Generation(long window, int wordCount) {
+            this.window = window;
+            this.words = new AtomicLongArray(wordCount);
+        }
+
+        void set(int bit) {
+            long mask = 1L << (bit & 63);
+            int index = bit >>> 6;
+            long current;
+            while (((current = words.get(index)) & mask) == 0 && !words.compareAndSet(index, current, current | mask)) {
+                // retry
+            }
+        }
+
+        boolean get(int bit) {
+            return (words.get(bit >>> 6) & (1L << (bit & 63))) != 0;
+        }
+    }
+}
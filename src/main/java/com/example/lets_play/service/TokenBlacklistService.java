@@ -1,75 +1,226 @@
 package com.example.lets_play.service;
 
+import com.example.lets_play.config.LogRateLimiter;
+import com.example.lets_play.dto.RevocationStats;
+import com.example.lets_play.model.RevokedToken;
+import com.example.lets_play.repository.RevokedTokenRepository;
+import com.example.lets_play.security.JwtService;
+import com.example.lets_play.security.VerifiedClaims;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import java.util.Set;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
 /**
- * Service to manage blacklisted JWT tokens
- * In a production environment, this should use Redis or a database
+ * Revoked JWTs, keyed by the token's SHA-256 digest and kept only until the token's own expiry.
+ * Revocations are persisted in Mongo so they survive restarts and reach every instance;
+ * each instance keeps an in-memory near-cache, tailed from the collection every few seconds,
+ * so the per-request check never leaves memory.
+ * Entries also sit in an expiry-ordered set, so the periodic sweep removes exactly the ones
+ * that expired, oldest first, and memory tracks the number of live revoked tokens.
+ * A rotating Bloom filter answers the common "not revoked" case before the map is touched.
  */
 @Service
 public class TokenBlacklistService {
 
-    // In-memory storage (use Redis in production)
-    private final Set<String> blacklistedTokens = ConcurrentHashMap.newKeySet();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    // Revocations written this long before the last sync are re-read, to absorb clock skew between instances
+    private static final long SYNC_OVERLAP_MS = 30_000;
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBlacklistService.class);
+    // The sync runs every few seconds; a Mongo outage should not flood the log
+    private static final LogRateLimiter SYNC_FAILURE_LOG = new LogRateLimiter(1);
+
+    private final JwtService jwtService;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long syncMillis;
+    private volatile long lastSync;
 
-    public TokenBlacklistService() {
-        // Clean up expired tokens every hour
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredTokens, 1, 1, TimeUnit.HOURS);
+    // digest -> expiry (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Revocation> byExpiry = new ConcurrentSkipListSet<>();
+    private final RotatingBloomFilter bloom;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder bloomPositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-revocation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TokenBlacklistService(JwtService jwtService, RevokedTokenRepository revokedTokenRepository,
+            @Value("${app.security.revocation.sync-millis:2000}") long syncMillis,
+            @Value("${app.security.revocation.sweep-seconds:60}") long sweepSeconds,
+            @Value("${app.security.revocation.bloom.window-minutes:60}") long windowMinutes,
+            @Value("${app.security.revocation.bloom.expected-per-window:100000}") int expectedPerWindow,
+            @Value("${app.security.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.jwtService = jwtService;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.syncMillis = syncMillis;
+        this.bloom = new RotatingBloomFilter(TimeUnit.MINUTES.toMillis(windowMinutes), JwtService.EXPIRATION_MS,
+                expectedPerWindow, falsePositiveRate);
+        scheduler.scheduleWithFixedDelay(() -> evictExpired(System.currentTimeMillis()),
+                sweepSeconds, sweepSeconds, TimeUnit.SECONDS);
     }
 
     /**
-     * Add token to blacklist
+     * Loads every live revocation, then keeps tailing the collection for new ones
      */
-    public void blacklistToken(String token) {
-        if (token != null && !token.isEmpty()) {
-            // Remove "Bearer " prefix if present
-            if (token.startsWith("Bearer ")) {
-                token = token.substring(7);
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSync() {
+        long now = System.currentTimeMillis();
+        try (Stream<RevokedToken> live = revokedTokenRepository.streamByExpiresAtAfter(new Date(now))) {
+            live.forEach(token -> remember(token, now));
+        }
+        lastSync = now;
+        scheduler.scheduleWithFixedDelay(this::syncSafely, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Revokes a verified token until it expires, on every instance
+     */
+    public void revoke(VerifiedClaims claims) {
+        long now = System.currentTimeMillis();
+        if (claims.isExpired(now)) {
+            return; // already unusable
+        }
+        // Persist first: a revocation that only exists on this node would be lost on restart
+        revokedTokenRepository.save(new RevokedToken(claims.getDigest(),
+                new Date(claims.getExpiresAtMillis()), new Date(now)));
+        if (remember(claims.getDigest(), claims.getExpiresAtMillis(), now)) {
+            log.atDebug().addKeyValue("event", "token_revoked")
+                    .addKeyValue("digest", claims.getDigest().substring(0, 10))
+                    .log("Token revoked");
+        }
+    }
+
+    /**
+     * Pulls revocations made since the last sync, on this or any other instance
+     */
+    void sync() {
+        long now = System.currentTimeMillis();
+        Date since = new Date(lastSync - SYNC_OVERLAP_MS);
+        try (Stream<RevokedToken> recent = revokedTokenRepository.findByRevokedAtGreaterThanEqualOrderByRevokedAtAsc(since)) {
+            recent.forEach(token -> remember(token, now));
+        }
+        lastSync = now;
+    }
+
+    // A failed run must not cancel the schedule; the next run re-reads from the same point
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            if (SYNC_FAILURE_LOG.tryAcquire()) {
+                log.warn("Revocation sync failed (suppressed={}): {}", SYNC_FAILURE_LOG.drainSuppressed(), e.toString());
             }
-            blacklistedTokens.add(token);
-            System.out.println("Token blacklisted: " + token.substring(0, Math.min(10, token.length())) + "...");
         }
     }
 
+    private void remember(RevokedToken token, long now) {
+        remember(token.getDigest(), token.getExpiresAt().getTime(), now);
+    }
+
+    // Returns true when the digest was not known locally yet
+    private boolean remember(String digest, long expiresAt, long now) {
+        if (expiresAt <= now || revoked.putIfAbsent(digest, expiresAt) != null) {
+            return false;
+        }
+        byExpiry.add(new Revocation(expiresAt, digest));
+        bloom.put(digest, expiresAt, now);
+        return true;
+    }
+
     /**
-     * Check if token is blacklisted
+     * Runs on every authenticated request: bit probes first, the exact map only on a filter hit
      */
-    public boolean isTokenBlacklisted(String token) {
-        if (token == null || token.isEmpty()) {
+    public boolean isRevoked(VerifiedClaims claims) {
+        checks.increment();
+        if (!bloom.mightContain(claims.getDigest(), claims.getExpiresAtMillis(), System.currentTimeMillis())) {
             return false;
         }
-        
-        // Remove "Bearer " prefix if present
-        if (token.startsWith("Bearer ")) {
-            token = token.substring(7);
+        bloomPositives.increment();
+        boolean found = revoked.containsKey(claims.getDigest());
+        if (!found) {
+            falsePositives.increment();
         }
-        
-        return blacklistedTokens.contains(token);
+        return found;
     }
 
     /**
-     * Clean up expired tokens (this is a simple implementation)
-     * In production, you'd check token expiration dates
+     * Add token to blacklist. Tokens that do not verify are already rejected, so they are ignored.
      */
-    private void cleanupExpiredTokens() {
-        // For now, clear all tokens older than 24 hours
-        // In production, parse JWT and check actual expiration
-        if (blacklistedTokens.size() > 1000) {
-            blacklistedTokens.clear();
-            System.out.println("Cleaned up old blacklisted tokens");
+    public void blacklistToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            revoke(jwtService.verify(token));
+        } catch (JwtException e) {
+            // invalid or expired: nothing to revoke
         }
     }
 
+    /**
+     * Removes revocations whose token has expired, walking the expiry order from the oldest.
+     * Returns how many were removed.
+     */
+    int evictExpired(long nowMillis) {
+        int evicted = 0;
+        Iterator<Revocation> it = byExpiry.iterator();
+        while (it.hasNext()) {
+            Revocation next = it.next();
+            if (next.expiresAt > nowMillis) {
+                break; // everything after this one expires later
+            }
+            it.remove();
+            revoked.remove(next.digest, next.expiresAt);
+            evicted++;
+        }
+        bloom.rotate(nowMillis);
+        return evicted;
+    }
+
     /**
      * Get count of blacklisted tokens (for monitoring)
      */
     public int getBlacklistedTokenCount() {
-        return blacklistedTokens.size();
+        return revoked.size();
+    }
+
+    public RevocationStats stats() {
+        long negatives = checks.sum() - bloomPositives.sum() + falsePositives.sum();
+        return new RevocationStats(revoked.size(), checks.sum(), bloomPositives.sum(), falsePositives.sum(),
+                negatives == 0 ? 0 : (double) falsePositives.sum() / negatives,
+                bloom.estimatedFalsePositiveRate(), bloom.generationCount(), bloom.memoryBytes());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private record Revocation(long expiresAt, String digest) implements Comparable<Revocation> {
+        @Override
+        public int compareTo(Revocation other) {
+            int byTime = Long.compare(expiresAt, other.expiresAt);
+            return byTime != 0 ? byTime : digest.compareTo(other.digest);
+        }
     }
-}
\ No newline at end of file
+}
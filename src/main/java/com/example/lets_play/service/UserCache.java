@@ -0,0 +1,99 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.User;
+import com.example.lets_play.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded TTL cache of users keyed by id and by email, in front of the lookups that run on
+ * almost every authenticated request. Each key is loaded through Caffeine's atomic compute,
+ * so an invalidate racing a load removes its result rather than a stale user (old role or
+ * password hash) being cached after it. Misses are not cached, so a user created elsewhere
+ * is visible right away. Lookups are also memoized on the current request,
+ * so one request never loads the same user twice even across an eviction.
+ * Cached users are shared; callers must not modify them.
+ */
+@Component
+public class UserCache {
+
+    private static final String REQUEST_PREFIX = UserCache.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> byId;
+    private final Cache<String, User> byEmail;
+
+    public UserCache(UserRepository userRepository,
+            @Value("${app.users.cache.max-size:10000}") long maxSize,
+            @Value("${app.users.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.byId = newCache(maxSize, ttlSeconds);
+        this.byEmail = newCache(maxSize, ttlSeconds);
+    }
+
+    private static Cache<String, User> newCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public Optional<User> findById(String userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return memoized("id:" + userId, () -> Optional.ofNullable(byId.get(userId, id -> userRepository.findById(id).orElse(null))));
+    }
+
+    /**
+     * Looks up by the normalized email
+     */
+    public Optional<User> findByEmail(String email) {
+        String normalized = User.normalizeEmail(email);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        return memoized("email:" + normalized,
+                () -> Optional.ofNullable(byEmail.get(normalized, key -> userRepository.findByEmail(key).orElse(null))));
+    }
+
+    /**
+     * Drops the user under both keys, here and on the current request
+     */
+    public void invalidate(User user) {
+        byId.invalidate(user.getId());
+        byEmail.invalidate(user.getEmail());
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_PREFIX + "id:" + user.getId(), RequestAttributes.SCOPE_REQUEST);
+            request.removeAttribute(REQUEST_PREFIX + "email:" + user.getEmail(), RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // Outside a web request (startup, background jobs) this is a plain cache lookup
+    @SuppressWarnings("unchecked")
+    private Optional<User> memoized(String key, Supplier<Optional<User>> lookup) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) {
+            return lookup.get();
+        }
+
+        Optional<User> seen = (Optional<User>) request.getAttribute(REQUEST_PREFIX + key, RequestAttributes.SCOPE_REQUEST);
+        if (seen != null) {
+            return seen;
+        }
+        Optional<User> found = lookup.get();
+        request.setAttribute(REQUEST_PREFIX + key, found, RequestAttributes.SCOPE_REQUEST);
+        return found;
+    }
+}
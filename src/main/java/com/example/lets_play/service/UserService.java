@@ -1,102 +1,174 @@
 package com.example.lets_play.service;
 
 import com.example.lets_play.exception.ResourceNotFoundException;
+import com.example.lets_play.model.Counter;
 import com.example.lets_play.model.User;
+import com.example.lets_play.repository.CounterRepository;
 import com.example.lets_play.repository.UserRepository;
-import com.example.lets_play.repository.ProductRepository;
+import com.example.lets_play.security.AuthenticatedUser;
 import com.example.lets_play.security.JwtService;
+import com.example.lets_play.security.PasswordHasher;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
+    // Per-role user counts kept in the counters collection, e.g. "users.role.ADMIN"
+    private static final String ROLE_COUNTER_PREFIX = "users.role.";
+    private static final List<String> ROLES = List.of("USER", "ADMIN");
+
     @Autowired
     private UserRepository userRepository;
+
+    @Autowired
+    private CounterRepository counterRepository;
+
+    @Autowired
+    private UserCache userCache;
     
     @Autowired
-    private ProductRepository productRepository;
+    private ProductService productService;
     
     @Autowired
     private JwtService jwtService;
 
+    // bcrypt runs on its own bounded pool, never on request threads
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
     public Optional<User> getUserById(String query) {
-        return userRepository.findById(query);
+        return userCache.findById(query);
     }
 
     public Optional<User> getUserByEmail(String query) {
-        return userRepository.findByEmail(query);
+        return userCache.findByEmail(query);
     }
 
     public String registerUser(String name, String email, String rawPassword, String role) {
-        if (userRepository.findByEmail(email).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
-        }
-        String hashed = passwordEncoder.encode(rawPassword);
-        User user = new User(name, email, hashed, role);
-        userRepository.save(user);
-        return jwtService.generateToken(user.getEmail(), user.getRole());
+        User user = createUser(name, email, rawPassword, role);
+        return jwtService.generateToken(user.getEmail(), user.getRole(), user.getId());
     }
 
+    /**
+     * Insert-first: the unique email index rejects duplicates, so this is one round trip
+     * and two concurrent sign-ups for the same email cannot both succeed
+     */
     public User createUser(String name, String email, String rawPassword, String role) {
-        if (userRepository.findByEmail(email).isPresent()) {
+        String hashed = passwordHasher.encode(rawPassword);
+        User saved;
+        try {
+            saved = userRepository.insert(new User(name, email, hashed, role));
+        } catch (DuplicateKeyException e) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already exists");
         }
-        String hashed = passwordEncoder.encode(rawPassword);
-        User user = new User(name, email, hashed, role);
-        return userRepository.save(user);
+        counterRepository.increment(roleCounter(role), 1);
+        return saved;
     }
 
     public String login(String email, String rawPassword) {
-        Optional<User> userOpt = userRepository.findByEmail(email);
+        Optional<User> userOpt = userRepository.findByEmail(User.normalizeEmail(email));
 
         if (!userOpt.isPresent()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
         }
 
         User user = userOpt.get();
-        boolean isPasswordCorrect = checkPassword(user.getId(), rawPassword);
+        boolean isPasswordCorrect = passwordHasher.matches(rawPassword, user.getPassword());
         if (!isPasswordCorrect) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "password is incorrect.");
         }
 
-        return jwtService.generateToken(user.getEmail(), user.getRole());
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehashPassword(user, rawPassword);
+        }
+
+        return jwtService.generateToken(user.getEmail(), user.getRole(), user.getId());
+    }
+
+    /**
+     * Re-hashes with the calibrated cost while the plain password is at hand.
+     * Best effort: when the hashing pool is busy the login still succeeds and the next one retries.
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordHasher.encode(rawPassword));
+        } catch (ResponseStatusException e) {
+            return;
+        }
+        userRepository.save(user);
+        userCache.invalidate(user);
     }
 
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.findByEmail(email);
     }
 
-    public User getUserFromToken(String token) {
-        String email = jwtService.extractEmail(token);
-        return userRepository.findByEmail(email)
+    /**
+     * The authenticated caller, from the claims already verified by the filter
+     */
+    public User getUser(AuthenticatedUser principal) {
+        Optional<User> user = principal.getId() != null
+                ? userCache.findById(principal.getId())
+                : userCache.findByEmail(principal.getEmail());
+        return user.orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * User id of the authenticated caller, read from the token claim.
+     * Tokens issued before the claim existed fall back to a lookup by email.
+     */
+    public String getUserId(AuthenticatedUser principal) {
+        if (principal.getId() != null) {
+            return principal.getId();
+        }
+        return userCache.findByEmail(principal.getEmail())
+                .map(User::getId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    /**
+     * Like getUserId, but confirms the account still exists. Used before creating rows owned by
+     * the caller, so a token outliving a deleted user cannot create orphaned products.
+     */
+    public String getExistingUserId(AuthenticatedUser principal) {
+        Optional<User> user = principal.getId() != null
+                ? userCache.findById(principal.getId())
+                : userCache.findByEmail(principal.getEmail());
+        return user.map(User::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User no longer exists"));
+    }
+
     public User updateUser(String userId, String name) {
         return userRepository.findById(userId).map(u -> {
             u.setName(name);
-            return userRepository.save(u);
+            User saved = userRepository.save(u);
+            userCache.invalidate(saved);
+            return saved;
         }).orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 
     public void updatePassword(String userId, String oldPassword, String newPassword) {
         // Check if old password is correct
-        System.out.println(oldPassword);
         boolean isOldPasswordCorrect = checkPassword(userId, oldPassword);
         if (!isOldPasswordCorrect) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Old password is incorrect.");
@@ -108,48 +180,106 @@ public class UserService {
         }
        
         userRepository.findById(userId).map(u -> {
-            u.setPassword(passwordEncoder.encode(newPassword));
+            u.setPassword(passwordHasher.encode(newPassword));
             userRepository.save(u);
+            userCache.invalidate(u);
             return true; // or return success boolean
         }).orElseThrow(() -> new ResourceNotFoundException("User not found2"));        
     }
 
     public boolean checkPassword(String userId, String rawPassword) {
         return userRepository.findById(userId)
-                .map(user -> passwordEncoder.matches(rawPassword, user.getPassword()))
+                .map(user -> passwordHasher.matches(rawPassword, user.getPassword()))
                 .orElse(false);
     }
 
+    /**
+     * One counter read; falls back to an indexed exists query before the counters are initialized
+     */
     public boolean hasAdminUser() {
-        return userRepository.findAll().stream()
-                .anyMatch(user -> "ADMIN".equals(user.getRole()));
+        return counterRepository.findById(roleCounter("ADMIN"))
+                .map(counter -> counter.getValue() > 0)
+                .orElseGet(() -> userRepository.existsByRole("ADMIN"));
+    }
+
+    /**
+     * Seeds missing role counters from indexed counts. Existing counters are left alone:
+     * overwriting them here would race with increments and conditional decrements
+     * made by other instances during a rolling deploy.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedRoleCounters() {
+        for (String role : ROLES) {
+            String counter = roleCounter(role);
+            if (!counterRepository.existsById(counter)) {
+                counterRepository.createIfMissing(counter, userRepository.countByRole(role));
+            }
+        }
+    }
+
+    /**
+     * One-off repair: resets the role counters from indexed counts, e.g. after users were written
+     * outside this service. Not atomic with concurrent user writes, so run it while none are in flight.
+     */
+    public Map<String, Long> reconcileRoleCounters() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String role : ROLES) {
+            long count = userRepository.countByRole(role);
+            counterRepository.save(new Counter(roleCounter(role), count));
+            counts.put(role, count);
+        }
+        return counts;
     }
 
     public void deleteUser(String userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
-        // Prevent deletion of the last admin
-        if ("ADMIN".equals(user.getRole())) {
-            long adminCount = userRepository.findAll().stream()
-                    .filter(u -> "ADMIN".equals(u.getRole()))
-                    .count();
+        // Prevent deletion of the last admin. The conditional decrement reserves the slot atomically,
+        // so two admins deleting each other concurrently cannot both succeed.
+        String counter = roleCounter(user.getRole());
+        if ("ADMIN".equals(user.getRole()) && !counterRepository.decrementIfAbove(counter, 1)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
+                "Cannot delete the last admin user");
+        }
+        
+        long removed;
+        try {
+            // Delete all products owned by this user
+            // This prevents orphaned products and potential security issues
+            long deletedProductsCount = productService.deleteProductsByOwner(userId);
             
-            if (adminCount <= 1) {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, 
-                    "Cannot delete the last admin user");
+            if (deletedProductsCount > 0) {
+                log.atInfo().addKeyValue("event", "owner_products_deleted")
+                        .addKeyValue("userId", userId)
+                        .addKeyValue("count", deletedProductsCount)
+                        .log("Deleted products owned by user");
             }
+            
+            removed = userRepository.removeById(userId);
+        } catch (RuntimeException e) {
+            if ("ADMIN".equals(user.getRole())) {
+                counterRepository.increment(counter, 1);
+            }
+            throw e;
         }
-        
-        // Delete all products owned by this user
-        // This prevents orphaned products and potential security issues
-        long deletedProductsCount = productRepository.deleteByUserId(userId);
-        
-        if (deletedProductsCount > 0) {
-            System.out.println("Deleted " + deletedProductsCount + " products owned by user: " + user.getEmail());
+        userCache.invalidate(user);
+
+        // Only the call that actually removed the document adjusts the counter;
+        // a concurrent delete that lost the race gives back the admin slot it reserved
+        if (removed == 0) {
+            if ("ADMIN".equals(user.getRole())) {
+                counterRepository.increment(counter, 1);
+            }
+            throw new ResourceNotFoundException("User not found");
         }
-        
-        userRepository.deleteById(userId);
+        if (!"ADMIN".equals(user.getRole())) {
+            counterRepository.increment(counter, -1);
+        }
+    }
+
+    private static String roleCounter(String role) {
+        return ROLE_COUNTER_PREFIX + role;
     }
 
 }
@@ -1,14 +1,19 @@
 package com.example.lets_play.service;
 
 import com.example.lets_play.security.InputSanitizer;
+import com.example.lets_play.dto.ProductPatchRequest;
 import com.example.lets_play.dto.ProductRequest;
 import com.example.lets_play.dto.RegisterUserRequest;
 import com.example.lets_play.dto.LoginUserRequest;
 import com.example.lets_play.exception.ValidationException;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 /**
  * Service for performing custom validation and sanitization
  */
@@ -18,6 +23,9 @@ public class ValidationService {
     @Autowired
     private InputSanitizer inputSanitizer;
     
+    @Autowired
+    private Validator validator;
+    
     /**
      * Validates and sanitizes ProductRequest
      */
@@ -52,6 +60,51 @@ public class ValidationService {
         }
     }
     
+    /**
+     * Validates a partial product update, checking only the fields that are present
+     */
+    public void validateProductPatchRequest(ProductPatchRequest request) {
+        if (request == null || (request.getName() == null && request.getDescription() == null && request.getPrice() == null)) {
+            throw new ValidationException("Patch must contain at least one of name, description or price");
+        }
+        
+        if (request.getName() != null && !inputSanitizer.isValidProductName(request.getName())) {
+            throw new ValidationException("Invalid product name format");
+        }
+        
+        if (request.getDescription() != null) {
+            if (request.getDescription().length() > 500) {
+                throw new ValidationException("Product description too long");
+            }
+            
+            if (inputSanitizer.containsMongoInjection(request.getDescription())) {
+                throw new ValidationException("Product description contains invalid characters");
+            }
+        }
+        
+        if (request.getPrice() != null && !inputSanitizer.isValidNumber(request.getPrice(), 0.01, 999999.99)) {
+            throw new ValidationException("Invalid product price");
+        }
+    }
+    
+    /**
+     * Validates one item of a bulk request: bean constraints (not covered by @Valid there)
+     * followed by the same custom checks as a single ProductRequest
+     */
+    public void validateBulkProductRequest(ProductRequest request) {
+        if (request == null) {
+            throw new ValidationException("Product request cannot be null");
+        }
+        
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<ProductRequest> violation = violations.iterator().next();
+            throw new ValidationException(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        
+        validateProductRequest(request);
+    }
+    
     /**
      * Validates and sanitizes RegisterUserRequest
      */
@@ -127,6 +180,19 @@ public class ValidationService {
         }
     }
     
+    /**
+     * Validates optional price range filters
+     */
+    public void validatePriceRange(Double minPrice, Double maxPrice) {
+        if ((minPrice != null && (minPrice.isNaN() || minPrice < 0))
+                || (maxPrice != null && (maxPrice.isNaN() || maxPrice < 0))) {
+            throw new ValidationException("Price filters must be non-negative numbers");
+        }
+        if (minPrice != null && maxPrice != null && minPrice > maxPrice) {
+            throw new ValidationException("minPrice cannot be greater than maxPrice");
+        }
+    }
+
     /**
      * Validates search query
      */
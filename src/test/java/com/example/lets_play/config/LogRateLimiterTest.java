@@ -0,0 +1,22 @@
+package com.example.lets_play.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogRateLimiterTest {
+
+    @Test
+    public void testBudgetPerSecond() {
+        LogRateLimiter limiter = new LogRateLimiter(2);
+        assertTrue(limiter.tryAcquire(10_000));
+        assertTrue(limiter.tryAcquire(10_500));
+        assertFalse(limiter.tryAcquire(10_900));
+        assertFalse(limiter.tryAcquire(10_999));
+
+        // A new window restores the budget and reports what was dropped once
+        assertTrue(limiter.tryAcquire(11_000));
+        assertEquals(2, limiter.drainSuppressed());
+        assertEquals(0, limiter.drainSuppressed());
+    }
+}
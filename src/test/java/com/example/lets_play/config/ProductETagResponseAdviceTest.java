@@ -0,0 +1,86 @@
+package com.example.lets_play.config;
+
+import com.example.lets_play.dto.ProductFields;
+import com.example.lets_play.model.Product;
+import com.example.lets_play.repository.ProductRepository;
+import com.example.lets_play.service.ProductCache;
+import com.example.lets_play.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductETagResponseAdviceTest {
+
+    private static final String ID = "507f1f77bcf86cd799439012";
+
+    private final ProductETagResponseAdvice advice = new ProductETagResponseAdvice();
+    private ProductService productService;
+    private Product stored;
+
+    @BeforeEach
+    public void setUp() {
+        stored = new Product("Laptop", "High performance laptop", 10.0, "507f1f77bcf86cd799439011");
+        stored.setId(ID);
+        stored.setVersion(3L);
+
+        // Answers projected reads with only the projected fields, as Mongo would
+        ProductRepository repository = Mockito.mock(ProductRepository.class);
+        Mockito.when(repository.findProjectedById(Mockito.eq(ID), Mockito.any())).thenAnswer(invocation -> {
+            Collection<String> fields = invocation.getArgument(1);
+            Product projected = new Product(fields.contains("name") ? stored.getTitle() : null, null,
+                    fields.contains("price") ? stored.getPrice() : null,
+                    fields.contains("userId") ? stored.getUserId() : null);
+            projected.setId(ID);
+            projected.setVersion(fields.contains("version") ? stored.getVersion() : null);
+            return Optional.of(projected);
+        });
+        Mockito.when(repository.findById(ID)).thenAnswer(invocation -> Optional.of(stored));
+
+        productService = new ProductService();
+        ReflectionTestUtils.setField(productService, "productRepository", repository);
+        ReflectionTestUtils.setField(productService, "productCache", new ProductCache(repository, 100, 60));
+    }
+
+    @Test
+    public void testProjectedReadRevalidatesAfterUpdate() {
+        String etag = fetch("name", null).getHeader("ETag");
+        assertEquals(304, fetch("name", etag).getStatus());
+
+        stored.setVersion(4L); // updated by another request
+        MockHttpServletResponse afterUpdate = fetch("name", etag);
+        assertEquals(200, afterUpdate.getStatus());
+        assertNotEquals(etag, afterUpdate.getHeader("ETag"));
+    }
+
+    @Test
+    public void testProjectedAndCachedReadsShareTheTag() {
+        String projected = fetch("name", null).getHeader("ETag");
+        productService.getProductById(ID); // now cached
+        assertEquals(projected, fetch("name", null).getHeader("ETag"));
+        assertTrue(projected.startsWith("\"" + ID + "-3-"));
+    }
+
+    private MockHttpServletResponse fetch(String fields, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/" + ID);
+        request.setParameter("fields", fields);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Product product = productService.getProductById(ID, ProductFields.parse(fields));
+        advice.beforeBodyWrite(product, null, null, null,
+                new ServletServerHttpRequest(request), new ServletServerHttpResponse(response));
+        return response;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.lets_play.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private final JwtService jwtService = new JwtService(100);
+
+    @Test
+    public void testVerifyReadsAllClaims() {
+        String token = jwtService.generateToken("john@example.com", "USER", "64b7f0c2a1b2c3d4e5f60718");
+
+        VerifiedClaims claims = jwtService.verify("Bearer " + token);
+        assertEquals("john@example.com", claims.getEmail());
+        assertEquals("USER", claims.getRole());
+        assertEquals("64b7f0c2a1b2c3d4e5f60718", claims.getUserId());
+        assertEquals(JwtService.digest(token), claims.getDigest());
+        assertFalse(claims.isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void testRepeatVerificationIsServedFromCache() {
+        String token = jwtService.generateToken("john@example.com", "USER", "64b7f0c2a1b2c3d4e5f60718");
+
+        // Same instance back means the signature was not checked again
+        assertSame(jwtService.verify(token), jwtService.verify("Bearer " + token));
+    }
+
+    @Test
+    public void testTamperedTokenIsRejected() {
+        String token = jwtService.generateToken("john@example.com", "USER", "64b7f0c2a1b2c3d4e5f60718");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verify(tampered));
+        assertThrows(JwtException.class, () -> jwtService.verify("not.a.token"));
+    }
+}
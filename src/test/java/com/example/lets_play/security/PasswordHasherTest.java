@@ -0,0 +1,55 @@
+package com.example.lets_play.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private PasswordHasher hasher;
+
+    @BeforeEach
+    public void setUp() {
+        // Low costs keep the test fast; the calibrated cost stays within [5, 6], so cost - 1 is still valid
+        hasher = new PasswordHasher(2, 4, 5000, 50, 5, 6);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    public void testEncodeAndMatch() {
+        String hash = hasher.encode("Secret123!");
+        assertTrue(hasher.matches("Secret123!", hash));
+        assertFalse(hasher.matches("wrong", hash));
+        assertEquals(hasher.getCost(), PasswordHasher.costOf(hash));
+        assertEquals(3, hasher.stats().getCompleted());
+    }
+
+    @Test
+    public void testCalibrationStaysWithinBounds() {
+        int cost = PasswordHasher.calibrate(50, 4, 6);
+        assertTrue(cost >= 4 && cost <= 6);
+        assertEquals(5, PasswordHasher.calibrate(0, 5, 12));
+    }
+
+    @Test
+    public void testCostOf() {
+        assertEquals(10, PasswordHasher.costOf(new BCryptPasswordEncoder(10).encode("x")));
+        assertEquals(-1, PasswordHasher.costOf("plain"));
+        assertEquals(-1, PasswordHasher.costOf(null));
+    }
+
+    @Test
+    public void testNeedsRehashOnlyWhenWeaker() {
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(hasher.getCost() - 1).encode("x")));
+        assertFalse(hasher.needsRehash(new BCryptPasswordEncoder(hasher.getCost() + 1).encode("x")));
+        assertFalse(hasher.needsRehash(hasher.encode("x")));
+        assertFalse(hasher.needsRehash("not-bcrypt"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.Product;
+import com.example.lets_play.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductCacheTest {
+
+    private ProductRepository repository;
+    private ProductCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        repository = Mockito.mock(ProductRepository.class);
+        cache = new ProductCache(repository, 100, 60);
+    }
+
+    @Test
+    public void testMissesAreNotCached() {
+        Mockito.when(repository.findById("1")).thenReturn(Optional.empty());
+        assertTrue(cache.findById("1").isEmpty());
+
+        Mockito.when(repository.findById("1")).thenReturn(Optional.of(product("1")));
+        assertTrue(cache.findById("1").isPresent());
+        assertNotNull(cache.getIfPresent("1"));
+    }
+
+    @Test
+    public void testInvalidateDuringLoadDropsTheLoadedProduct() throws Exception {
+        Thread[] writer = new Thread[1];
+        Mockito.when(repository.findById("1")).thenAnswer(invocation -> {
+            // A write invalidates the key while the (now stale) product is being loaded
+            writer[0] = new Thread(() -> cache.invalidate("1"));
+            writer[0].start();
+            Thread.sleep(50);
+            return Optional.of(product("1"));
+        });
+
+        assertTrue(cache.findById("1").isPresent());
+        writer[0].join();
+        assertNull(cache.getIfPresent("1"));
+    }
+
+    @Test
+    public void testBatchLoadServesHitsAndDoesNotCacheMisses() {
+        Mockito.when(repository.findById("1")).thenReturn(Optional.of(product("1")));
+        cache.findById("1");
+        Mockito.when(repository.findAllById(List.of("2", "3"))).thenReturn(List.of(product("2")));
+
+        Map<String, Product> found = cache.findAllById(List.of("1", "2", "3"));
+
+        assertEquals(Set.of("1", "2"), found.keySet());
+        Mockito.verify(repository).findAllById(List.of("2", "3"));
+        assertNull(cache.getIfPresent("2"));
+    }
+
+    private static Product product(String id) {
+        Product p = new Product("Laptop", "High performance laptop", 10.0, "507f1f77bcf86cd799439011");
+        p.setId(id);
+        return p;
+    }
+}
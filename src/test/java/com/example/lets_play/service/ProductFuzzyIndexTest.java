@@ -0,0 +1,170 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductFuzzyIndexTest {
+
+    private ProductFuzzyIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ProductFuzzyIndex();
+        index.rebuild(List.of(
+            product("1", "Gaming Laptop"),
+            product("2", "Office Chair"),
+            product("3", "Laptop Stand")
+        ).iterator());
+    }
+
+    @Test
+    public void testLevenshtein() {
+        assertEquals(0, ProductFuzzyIndex.levenshtein("laptop", "laptop"));
+        assertEquals(1, ProductFuzzyIndex.levenshtein("laptop", "labtop"));
+        assertEquals(2, ProductFuzzyIndex.levenshtein("laptop", "lpatop"));
+        assertEquals(3, ProductFuzzyIndex.levenshtein("kitten", "sitting"));
+        assertEquals(4, ProductFuzzyIndex.levenshtein("", "desk"));
+    }
+
+    @Test
+    public void testFindsMisspelledTitles() {
+        assertEquals(List.of("1", "3"), index.search("labtop", 2, 10));
+        assertEquals(List.of("1", "3"), index.search("gamign laptop", 2, 10));
+        assertEquals(List.of("2"), index.search("chir", 2, 10));
+    }
+
+    @Test
+    public void testRespectsDistanceBudget() {
+        assertTrue(index.search("lpatpo", 1, 10).isEmpty());
+        assertTrue(index.search("labtop", 0, 10).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        index.put(product("2", "Desk Lamp"));
+        assertTrue(index.search("chair", 2, 10).isEmpty());
+        assertEquals(List.of("2"), index.search("lamb", 2, 10));
+
+        index.remove("1");
+        assertEquals(List.of("3"), index.search("laptop", 2, 10));
+    }
+
+    @Test
+    public void testWritesDuringRebuildSurviveTheSwap() {
+        index.rebuild(ProductSearchIndexTest.readingWith(List.of(
+            product("1", "Gaming Laptop"),
+            product("3", "Laptop Stand")
+        ), () -> {
+            index.remove("1");
+            index.put(product("5", "Travel Laptop"));
+        }));
+
+        assertEquals(Set.of("3", "5"), Set.copyOf(index.search("labtop", 2, 10)));
+    }
+
+    /**
+     * Compares the BK-tree against brute-force comparison with every title.
+     * Run with: mvn test -Dtest=ProductFuzzyIndexTest -Dbenchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkAgainstBruteForce() {
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            vocabulary.add(randomWord(random));
+        }
+
+        for (int size : new int[] {10_000, 100_000, 1_000_000}) {
+            List<String> titles = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                titles.add(vocabulary.get(random.nextInt(vocabulary.size())) + " "
+                        + vocabulary.get(random.nextInt(vocabulary.size())) + " "
+                        + vocabulary.get(random.nextInt(vocabulary.size())));
+            }
+
+            ProductFuzzyIndex bench = new ProductFuzzyIndex();
+            long buildStart = System.nanoTime();
+            bench.rebuild(products(titles));
+            long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+            List<String> queries = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                queries.add(typo(titles.get(random.nextInt(size)).split(" ")[0], random));
+            }
+
+            long indexStart = System.nanoTime();
+            for (String query : queries) {
+                bench.search(query, 2, 20);
+            }
+            double indexMicros = (System.nanoTime() - indexStart) / 1000.0 / queries.size();
+
+            int bruteQueries = 5;
+            long bruteStart = System.nanoTime();
+            for (String query : queries.subList(0, bruteQueries)) {
+                Set<Integer> hits = new HashSet<>();
+                for (int i = 0; i < titles.size(); i++) {
+                    for (String term : titles.get(i).split(" ")) {
+                        if (ProductFuzzyIndex.levenshtein(query, term) <= 2) {
+                            hits.add(i);
+                        }
+                    }
+                }
+            }
+            double bruteMicros = (System.nanoTime() - bruteStart) / 1000.0 / bruteQueries;
+
+            System.out.printf("fuzzy titles=%,d build=%dms bk-tree=%.0fus/query brute-force=%.0fus/query%n",
+                    size, buildMs, indexMicros, bruteMicros);
+        }
+    }
+
+    private static Iterator<Product> products(List<String> titles) {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < titles.size();
+            }
+
+            @Override
+            public Product next() {
+                Product p = new Product(titles.get(next), null, 10.0, null);
+                p.setId(Integer.toString(next++));
+                return p;
+            }
+        };
+    }
+
+    private static String randomWord(Random random) {
+        int length = 4 + random.nextInt(7);
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(26)));
+        }
+        return word.toString();
+    }
+
+    private static String typo(String word, Random random) {
+        char[] chars = word.toCharArray();
+        chars[random.nextInt(chars.length)] = (char) ('a' + random.nextInt(26));
+        return new String(chars);
+    }
+
+    private static Product product(String id, String title) {
+        Product p = new Product(title, "Some product description", 10.0, "507f1f77bcf86cd799439011");
+        p.setId(id);
+        return p;
+    }
+}
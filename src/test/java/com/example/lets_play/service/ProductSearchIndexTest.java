@@ -0,0 +1,106 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+            product("1", "Gaming Laptop", "High performance laptop for gaming"),
+            product("2", "Office Chair", "Ergonomic chair for long working days"),
+            product("3", "Laptop Stand", "Aluminium stand that fits any laptop")
+        ).iterator());
+    }
+
+    @Test
+    public void testRanksTitleMatchesFirst() {
+        List<String> ids = ids(index.search("gaming laptop", 10));
+
+        assertEquals(List.of("1", "3"), ids);
+    }
+
+    @Test
+    public void testLimitKeepsBestHits() {
+        assertEquals(List.of("1"), ids(index.search("gaming laptop", 1)));
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        index.put(product("4", "Gaming Chair", "Racing style chair"));
+        assertTrue(ids(index.search("chair", 10)).containsAll(List.of("2", "4")));
+
+        index.put(product("4", "Desk Lamp", "Warm light for the desk"));
+        assertEquals(List.of("2"), ids(index.search("chair", 10)));
+
+        index.remove("1");
+        assertEquals(List.of("3"), ids(index.search("laptop", 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testWritesDuringRebuildSurviveTheSwap() {
+        // The catalog snapshot still has product 1; it is deleted and product 5 created mid-read
+        index.rebuild(readingWith(List.of(
+            product("1", "Gaming Laptop", "High performance laptop for gaming"),
+            product("3", "Laptop Stand", "Aluminium stand that fits any laptop")
+        ), () -> {
+            index.remove("1");
+            index.put(product("5", "Travel Laptop", "Light laptop"));
+        }));
+
+        assertEquals(Set.of("3", "5"), Set.copyOf(ids(index.search("laptop", 10))));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testUnknownTermsReturnNothing() {
+        assertTrue(index.search("keyboard", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    private static Product product(String id, String title, String description) {
+        Product p = new Product(title, description, 10.0, "507f1f77bcf86cd799439011");
+        p.setId(id);
+        return p;
+    }
+
+    // Runs the writes after the first product has been read, as if they landed during a rebuild
+    static Iterator<Product> readingWith(List<Product> products, Runnable writes) {
+        Iterator<Product> it = products.iterator();
+        return new Iterator<>() {
+            private boolean written;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Product next() {
+                Product next = it.next();
+                if (!written) {
+                    written = true;
+                    writes.run();
+                }
+                return next;
+            }
+        };
+    }
+
+    private static List<String> ids(List<Product> products) {
+        return products.stream().map(Product::getId).collect(Collectors.toList());
+    }
+}
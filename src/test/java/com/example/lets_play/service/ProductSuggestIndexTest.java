@@ -0,0 +1,70 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.dto.ProductSuggestion;
+import com.example.lets_play.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new ProductSuggestIndex();
+        index.rebuild(List.of(
+            product("1", "Laptop Stand"),
+            product("2", "Office Chair"),
+            product("3", "Gaming Laptop"),
+            product("4", "laptop sleeve")
+        ).iterator());
+    }
+
+    @Test
+    public void testPrefixMatchesInAlphabeticalOrder() {
+        assertTrue(index.isReady());
+        assertEquals(List.of("4", "1"), ids(index.suggest("LAP", 10)));
+        assertEquals(List.of("4"), ids(index.suggest("lap", 1)));
+        assertTrue(index.suggest("desk", 10).isEmpty());
+        assertTrue(index.suggest("  ", 10).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        index.put(product("1", "Desk Lamp"));
+        assertEquals(List.of("4"), ids(index.suggest("lap", 10)));
+        assertEquals(List.of("1"), ids(index.suggest("desk", 10)));
+
+        index.remove("4");
+        assertTrue(index.suggest("lap", 10).isEmpty());
+    }
+
+    @Test
+    public void testWritesDuringRebuildSurviveTheSwap() {
+        // The catalog snapshot still has product 1; it is deleted and product 5 created mid-read
+        index.rebuild(ProductSearchIndexTest.readingWith(List.of(
+            product("1", "Laptop Stand"),
+            product("4", "laptop sleeve")
+        ), () -> {
+            index.remove("1");
+            index.put(product("5", "Laptop Bag"));
+        }));
+
+        assertEquals(List.of("5", "4"), ids(index.suggest("lap", 10)));
+    }
+
+    private static Product product(String id, String title) {
+        Product p = new Product(title, null, 10.0, "507f1f77bcf86cd799439011");
+        p.setId(id);
+        return p;
+    }
+
+    private static List<String> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.security.JwtService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RotatingBloomFilterTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long NOW = 1_000 * HOUR;
+
+    @Test
+    public void testNoFalseNegativesAndBoundedFalsePositives() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(HOUR, 24 * HOUR, 10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(JwtService.digest("revoked-" + i), NOW + HOUR, NOW);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain(JwtService.digest("revoked-" + i), NOW + HOUR, NOW));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(JwtService.digest("live-" + i), NOW + HOUR, NOW)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertTrue(filter.estimatedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    public void testLookupOnlyProbesTheTokensOwnWindow() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(HOUR, 24 * HOUR, 1_000, 0.01);
+        String digest = JwtService.digest("token");
+        filter.put(digest, NOW + HOUR, NOW);
+
+        assertTrue(filter.mightContain(digest, NOW + HOUR, NOW));
+        assertFalse(filter.mightContain(digest, NOW + 5 * HOUR, NOW));
+    }
+
+    @Test
+    public void testRotationDropsPassedWindows() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(HOUR, 24 * HOUR, 1_000, 0.01);
+        filter.put(JwtService.digest("a"), NOW + HOUR, NOW);
+        filter.put(JwtService.digest("b"), NOW + 10 * HOUR, NOW);
+        assertEquals(2, filter.generationCount());
+
+        assertEquals(1, filter.rotate(NOW + 3 * HOUR));
+        assertEquals(1, filter.generationCount());
+        assertTrue(filter.mightContain(JwtService.digest("b"), NOW + 10 * HOUR, NOW + 3 * HOUR));
+    }
+
+    @Test
+    public void testTokensPastTheHorizonFallBackToExactChecks() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(HOUR, 24 * HOUR, 1_000, 0.01);
+        filter.put(JwtService.digest("long-lived"), NOW + 48 * HOUR, NOW);
+
+        // Every lookup is a "maybe" until that token expires
+        assertTrue(filter.mightContain(JwtService.digest("other"), NOW + HOUR, NOW));
+        assertFalse(filter.mightContain(JwtService.digest("other"), NOW + 50 * HOUR, NOW + 49 * HOUR));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.model.RevokedToken;
+import com.example.lets_play.repository.RevokedTokenRepository;
+import com.example.lets_play.security.JwtService;
+import com.example.lets_play.security.VerifiedClaims;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Date;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBlacklistServiceTest {
+
+    private RevokedTokenRepository repository;
+    private TokenBlacklistService blacklist;
+
+    @BeforeEach
+    public void setUp() {
+        repository = Mockito.mock(RevokedTokenRepository.class);
+        blacklist = new TokenBlacklistService(new JwtService(100), repository, 2000, 3600, 60, 1000, 0.01);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        blacklist.shutdown();
+    }
+
+    @Test
+    public void testRevokedUntilExpiry() {
+        long now = System.currentTimeMillis();
+        VerifiedClaims soon = claims("a", now + 1_000);
+        VerifiedClaims later = claims("b", now + 60_000);
+        blacklist.revoke(soon);
+        blacklist.revoke(later);
+
+        assertTrue(blacklist.isRevoked(soon));
+        assertTrue(blacklist.isRevoked(later));
+        assertFalse(blacklist.isRevoked(claims("c", now + 60_000)));
+
+        // Only the entry whose token expired is swept
+        assertEquals(1, blacklist.evictExpired(now + 2_000));
+        assertFalse(blacklist.isRevoked(soon));
+        assertTrue(blacklist.isRevoked(later));
+        assertEquals(1, blacklist.getBlacklistedTokenCount());
+    }
+
+    @Test
+    public void testExpiredTokensAreNotStored() {
+        blacklist.revoke(claims("old", System.currentTimeMillis() - 1));
+        assertEquals(0, blacklist.getBlacklistedTokenCount());
+    }
+
+    @Test
+    public void testRevokeIsIdempotent() {
+        VerifiedClaims claims = claims("a", System.currentTimeMillis() + 60_000);
+        blacklist.revoke(claims);
+        blacklist.revoke(claims);
+        assertEquals(1, blacklist.getBlacklistedTokenCount());
+        assertEquals(1, blacklist.evictExpired(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testSyncPicksUpRevocationsFromOtherInstances() {
+        VerifiedClaims claims = claims("remote", System.currentTimeMillis() + 60_000);
+        RevokedToken stored = new RevokedToken(claims.getDigest(), new Date(claims.getExpiresAtMillis()), new Date());
+        Mockito.when(repository.findByRevokedAtGreaterThanEqualOrderByRevokedAtAsc(Mockito.any()))
+                .thenAnswer(invocation -> Stream.of(stored));
+
+        assertFalse(blacklist.isRevoked(claims));
+        blacklist.sync();
+        blacklist.sync(); // overlapping windows re-read the same row
+        assertTrue(blacklist.isRevoked(claims));
+        assertEquals(1, blacklist.getBlacklistedTokenCount());
+    }
+
+    @Test
+    public void testRevokePersists() {
+        blacklist.revoke(claims("a", System.currentTimeMillis() + 60_000));
+        Mockito.verify(repository).save(Mockito.any(RevokedToken.class));
+    }
+
+    private static VerifiedClaims claims(String token, long expiresAt) {
+        return new VerifiedClaims(JwtService.digest(token), "john@example.com", "USER", null, expiresAt);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.lets_play.service;
+
+import com.example.lets_play.exception.ResourceNotFoundException;
+import com.example.lets_play.model.User;
+import com.example.lets_play.repository.CounterRepository;
+import com.example.lets_play.repository.UserRepository;
+import com.example.lets_play.security.AuthenticatedUser;
+import com.example.lets_play.security.VerifiedClaims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserServiceTest {
+
+    private static final String ID = "507f1f77bcf86cd799439011";
+
+    private UserRepository userRepository;
+    private CounterRepository counterRepository;
+    private UserCache userCache;
+    private UserService userService;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        counterRepository = Mockito.mock(CounterRepository.class);
+        userService = new UserService();
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "counterRepository", counterRepository);
+        userCache = Mockito.mock(UserCache.class);
+        ReflectionTestUtils.setField(userService, "userCache", userCache);
+        ReflectionTestUtils.setField(userService, "productService", Mockito.mock(ProductService.class));
+    }
+
+    @Test
+    public void testDeleteAdjustsTheRoleCounterOnce() {
+        givenUser("USER");
+        Mockito.when(userRepository.removeById(ID)).thenReturn(1L);
+
+        userService.deleteUser(ID);
+        Mockito.verify(counterRepository).increment("users.role.USER", -1);
+    }
+
+    @Test
+    public void testLosingConcurrentDeleteLeavesCountersAlone() {
+        givenUser("USER");
+        Mockito.when(userRepository.removeById(ID)).thenReturn(0L);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(ID));
+        Mockito.verify(counterRepository, Mockito.never()).increment(Mockito.anyString(), Mockito.anyLong());
+    }
+
+    @Test
+    public void testLosingConcurrentAdminDeleteReturnsTheReservedSlot() {
+        givenUser("ADMIN");
+        Mockito.when(counterRepository.decrementIfAbove("users.role.ADMIN", 1)).thenReturn(true);
+        Mockito.when(userRepository.removeById(ID)).thenReturn(0L);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.deleteUser(ID));
+        Mockito.verify(counterRepository).increment("users.role.ADMIN", 1);
+    }
+
+    @Test
+    public void testTokenOfDeletedUserCannotCreate() {
+        AuthenticatedUser principal = new AuthenticatedUser(
+                new VerifiedClaims("digest", "john@example.com", "USER", ID, Long.MAX_VALUE));
+        Mockito.when(userCache.findById(ID)).thenReturn(Optional.empty());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> userService.getExistingUserId(principal));
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        assertEquals(ID, userService.getUserId(principal));
+    }
+
+    private void givenUser(String role) {
+        User user = new User("John", "john@example.com", "hash", role);
+        user.setId(ID);
+        Mockito.when(userRepository.findById(ID)).thenReturn(Optional.of(user));
+    }
+}